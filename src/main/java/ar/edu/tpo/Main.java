@@ -18,11 +18,14 @@ import ar.edu.tpo.notification.Notificador;
 import ar.edu.tpo.notification.NotificacionStrategy;
 import ar.edu.tpo.notification.NotificationService;
 import ar.edu.tpo.notification.RespaldoNotificacionDecorator;
+import ar.edu.tpo.repository.AbstractScrimRepository;
 import ar.edu.tpo.repository.JsonScrimRepository;
 import ar.edu.tpo.repository.JsonUsuarioRepository;
+import ar.edu.tpo.repository.ShardedJsonScrimRepository;
 import ar.edu.tpo.service.ArgentinaTimeZone;
 import ar.edu.tpo.service.ConductaService;
 import ar.edu.tpo.service.MockUsuarioActualPort;
+import ar.edu.tpo.service.PlanificadorTareas;
 import ar.edu.tpo.service.SancionSchedulerService;
 import ar.edu.tpo.service.UsuarioService;
 import ar.edu.tpo.service.scrim.ScrimCicloDeVidaService;
@@ -30,11 +33,15 @@ import ar.edu.tpo.service.scrim.ScrimLobbyService;
 import ar.edu.tpo.service.scrim.ScrimSchedulerService;
 import ar.edu.tpo.service.scrim.ScrimStatsService;
 
+import java.io.File;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Main {
     private static final Scanner scanner = new Scanner(System.in);
@@ -43,8 +50,21 @@ public class Main {
     private static UsuarioService usuarioService;
 
     public static void main(String[] args) {
-        JsonScrimRepository scrimRepo = new JsonScrimRepository("data/scrims.json");
-        JsonUsuarioRepository usuarioRepo = new JsonUsuarioRepository("data/usuarios.json");
+        // Un solo reloj para todos los servicios y el planificador
+        Clock reloj = Clock.systemDefaultZone();
+        boolean snapshotBinario = Boolean.parseBoolean(firstNonNull(System.getenv("PERSISTENCIA_BINARIA"), "false").trim());
+        long inicioCarga = System.nanoTime();
+        // Scrims y usuarios no dependen entre sí: se cargan a la vez
+        CompletableFuture<AbstractScrimRepository> cargaScrims =
+                CompletableFuture.supplyAsync(() -> crearRepositorioScrims(snapshotBinario));
+        JsonUsuarioRepository usuarioRepo = new JsonUsuarioRepository("data/usuarios.json", snapshotBinario, 200);
+        AbstractScrimRepository scrimRepo = esperarCarga(cargaScrims);
+        System.out.println("[arranque] " + scrimRepo.getArranque().resumen());
+        System.out.println("[arranque] " + usuarioRepo.getArranque().resumen());
+        System.out.println("[arranque] Repositorios listos en " +
+                Duration.ofNanos(System.nanoTime() - inicioCarga).toMillis() + " ms");
+        configurarEscrituraDiferida(scrimRepo, usuarioRepo);
+        archivarScrimsTerminados(scrimRepo, reloj);
 
         String defaultRemitente = "no-reply@escrims.local";
         String defaultHost = "smtp.gmail.com";
@@ -75,30 +95,37 @@ public class Main {
         NotificacionStrategy estrategiaNotificacion = mailStrategy;
         NotificacionStrategy fallbackConsola = MailStrategy.consola(defaultRemitente);
         estrategiaNotificacion = new RespaldoNotificacionDecorator(estrategiaNotificacion, fallbackConsola);
-        estrategiaNotificacion = new LoggingNotificacionDecorator(estrategiaNotificacion);
+        estrategiaNotificacion = new LoggingNotificacionDecorator(estrategiaNotificacion, reloj);
 
         Notificador notificador = new Notificador(estrategiaNotificacion);
-        NotificationService notificationService = new NotificationService(notificador);
+        NotificationService notificationService = new NotificationService(notificador, reloj);
 
-        usuarioService = new UsuarioService(usuarioRepo, notificationService);
-        ConductaService conductaService = new ConductaService(usuarioService);
+        usuarioService = new UsuarioService(usuarioRepo, notificationService, reloj);
+        ConductaService conductaService = new ConductaService(usuarioService, reloj);
         ScrimCicloDeVidaService scrimLifecycleService = new ScrimCicloDeVidaService(scrimRepo, usuarioService, notificationService);
-        ScrimLobbyService scrimLobbyService = new ScrimLobbyService(scrimRepo, usuarioService, conductaService, notificationService);
-        ScrimStatsService scrimStatsService = new ScrimStatsService(scrimRepo, usuarioService);
+        ScrimLobbyService scrimLobbyService = new ScrimLobbyService(scrimRepo, usuarioService, conductaService, notificationService, reloj);
+        ScrimStatsService scrimStatsService = new ScrimStatsService(scrimRepo, usuarioService, reloj);
 
         usuarioActual = new MockUsuarioActualPort();
         scrimController = new ScrimController(scrimLifecycleService, scrimLobbyService, scrimStatsService, usuarioActual);
 
-        ScrimSchedulerService scrimSchedulerService = ScrimSchedulerService.getInstance(scrimRepo, scrimLifecycleService);
-        scrimSchedulerService.iniciar(30);
+        PlanificadorTareas planificador = new PlanificadorTareas("Planificador", cantidadCarrilesPlanificador(), reloj);
+        ScrimSchedulerService scrimSchedulerService = new ScrimSchedulerService(scrimRepo, scrimLifecycleService, planificador);
+        scrimLifecycleService.setAgenda(scrimSchedulerService);
+        scrimLobbyService.setAgenda(scrimSchedulerService);
+        scrimSchedulerService.iniciar();
 
-        SancionSchedulerService sancionSchedulerService = SancionSchedulerService.getInstance(usuarioService);
-        sancionSchedulerService.iniciar(1);
+        SancionSchedulerService sancionSchedulerService = new SancionSchedulerService(usuarioService, planificador);
+        usuarioService.setAgenda(sancionSchedulerService);
+        sancionSchedulerService.iniciar();
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("\n[sistema] Cerrando scheduler...");
             scrimSchedulerService.detener();
             sancionSchedulerService.detener();
+            planificador.close();
+            System.out.println("[planificador] " + planificador.resumen());
+            cerrarRepositorios(scrimRepo, usuarioRepo);
         }));
 
         boolean salir = false;
@@ -133,6 +160,112 @@ public class Main {
         scanner.close();
     }
 
+    /**
+     * Con PERSISTENCIA_SCRIMS=shards cada scrim se guarda en data/scrims/<id>.json;
+     * la primera vez se importan los scrims de data/scrims.json. Con
+     * PERSISTENCIA_BINARIA=true los snapshots se guardan en data/*.bin.
+     */
+    private static AbstractScrimRepository crearRepositorioScrims(boolean snapshotBinario) {
+        if (!"shards".equalsIgnoreCase(firstNonNull(System.getenv("PERSISTENCIA_SCRIMS"), "").trim())) {
+            return new JsonScrimRepository("data/scrims.json", 200, snapshotBinario);
+        }
+        ShardedJsonScrimRepository repo = new ShardedJsonScrimRepository("data/scrims");
+        if (repo.listar().isEmpty() && new File("data/scrims.json").exists()) {
+            try (JsonScrimRepository legado = new JsonScrimRepository("data/scrims.json", 200)) {
+                int importados = repo.importarSiVacio(legado);
+                System.out.println("[persistencia] " + importados + " scrims importados de data/scrims.json a data/scrims/");
+            }
+        }
+        return repo;
+    }
+
+    /**
+     * Con ARCHIVO_SCRIMS_DIAS=N los scrims finalizados o cancelados hace más de
+     * N días se pasan al archivo comprimido al arrancar.
+     */
+    private static void archivarScrimsTerminados(AbstractScrimRepository scrimRepo, Clock reloj) {
+        String dias = System.getenv("ARCHIVO_SCRIMS_DIAS");
+        if (dias == null || dias.isBlank()) {
+            return;
+        }
+        try {
+            LocalDateTime limite = ArgentinaTimeZone.ahora(reloj).toLocalDateTime().minusDays(Long.parseLong(dias.trim()));
+            int archivados = scrimRepo.archivarTerminados(limite);
+            System.out.println("[archivo] " + archivados + " scrims terminados archivados (" +
+                    scrimRepo.getArchivados() + " en total)");
+        } catch (NumberFormatException e) {
+            System.err.println("[archivo] ARCHIVO_SCRIMS_DIAS inválido (" + dias + "). No se archivan scrims.");
+        }
+    }
+
+    /**
+     * Hilos que ejecutan las transiciones de scrims y los vencimientos de
+     * sanciones: SCHEDULER_CARRILES o, si no está, uno por procesador.
+     */
+    private static int cantidadCarrilesPlanificador() {
+        int porDefecto = Runtime.getRuntime().availableProcessors();
+        String carriles = System.getenv("SCHEDULER_CARRILES");
+        if (carriles == null || carriles.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(carriles.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("[planificador] SCHEDULER_CARRILES inválido (" + carriles + "). Se usan " + porDefecto + " carriles.");
+            return porDefecto;
+        }
+    }
+
+    private static AbstractScrimRepository esperarCarga(CompletableFuture<AbstractScrimRepository> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Escritura diferida opcional: con PERSISTENCIA_DIFERIDA_MS definida los
+     * repositorios agrupan los cambios y los vuelcan en segundo plano.
+     */
+    private static void configurarEscrituraDiferida(AbstractScrimRepository scrimRepo, JsonUsuarioRepository usuarioRepo) {
+        String intervaloMs = System.getenv("PERSISTENCIA_DIFERIDA_MS");
+        if (intervaloMs == null || intervaloMs.isBlank()) {
+            return;
+        }
+        try {
+            Duration intervalo = Duration.ofMillis(Long.parseLong(intervaloMs.trim()));
+            int lote = Integer.parseInt(firstNonNull(System.getenv("PERSISTENCIA_DIFERIDA_LOTE"), "100").trim());
+            scrimRepo.habilitarEscrituraDiferida(intervalo, lote);
+            usuarioRepo.habilitarEscrituraDiferida(intervalo, lote);
+            System.out.println("[persistencia] Escritura diferida cada " + intervalo.toMillis() + " ms (lote " + lote + ")");
+        } catch (IllegalArgumentException e) {
+            System.err.println("[persistencia] Configuración de escritura diferida inválida (" + e.getMessage() + "). Se escribe en cada cambio.");
+        }
+    }
+
+    private static void cerrarRepositorios(AbstractScrimRepository scrimRepo, JsonUsuarioRepository usuarioRepo) {
+        try {
+            scrimRepo.close();
+        } catch (RuntimeException e) {
+            System.err.println("[persistencia] Error al cerrar repositorio de scrims: " + e.getMessage());
+        }
+        try {
+            usuarioRepo.close();
+        } catch (RuntimeException e) {
+            System.err.println("[persistencia] Error al cerrar repositorio de usuarios: " + e.getMessage());
+        }
+        if (scrimRepo.getEscrituraDiferida() != null) {
+            System.out.println("[persistencia] " + scrimRepo.getEscrituraDiferida().resumen());
+        }
+        if (usuarioRepo.getEscrituraDiferida() != null) {
+            System.out.println("[persistencia] " + usuarioRepo.getEscrituraDiferida().resumen());
+        }
+    }
+
     private static String firstNonNull(String value, String defaultValue) {
         if (value == null || value.isBlank()) {
             return defaultValue;
@@ -177,6 +310,8 @@ public class Main {
         System.out.println("8. Configurar alerta de scrim");
         System.out.println("9. Ver alertas configuradas");
         System.out.println("10. Eliminar alerta configurada");
+        System.out.println("11. Ver scrims abiertas para mí");
+        System.out.println("12. Ver mis scrims");
         System.out.println("0. Cerrar sesión");
         System.out.print("Seleccione una opción: ");
     }
@@ -415,6 +550,8 @@ public class Main {
                     System.out.println("Error al eliminar alerta: " + e.getMessage());
                 }
             }
+            case 11 -> scrimController.listarAbiertasPara(jugador);
+            case 12 -> scrimController.listarMisScrims(jugador.getEmail());
             default -> System.out.println("Opción inválida.");
         }
         return false;
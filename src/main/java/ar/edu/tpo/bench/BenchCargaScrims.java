@@ -0,0 +1,124 @@
+package ar.edu.tpo.bench;
+
+import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.domain.estado.BuscandoJugadoresState;
+import ar.edu.tpo.repository.JsonScrimRepository;
+import ar.edu.tpo.repository.json.ScrimJsonAdapter;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la carga de un {@code scrims.json} grande con
+ * {@link ScrimJsonAdapter}, en un solo hilo:
+ * <ul>
+ *   <li>{@code streaming}: JsonReader → {@link ScrimJsonAdapter#read}, como carga el repositorio.</li>
+ *   <li>{@code arbol}: todo el archivo a un árbol de JsonElement y después
+ *   {@code fromJsonTree} por scrim, el recorrido del adaptador anterior (sin su
+ *   reflexión, que ya no existe).</li>
+ * </ul>
+ * La primera carga incluye la carga de clases y el JIT frío. Es un arranque
+ * en frío solo si es lo primero que hace la JVM: con un {@code archivo} que ya
+ * existe no se genera nada antes de medir. Para comparar los modos en frío hay
+ * que correr cada uno en una JVM nueva sobre el mismo archivo.
+ *
+ * Uso: {@code java ar.edu.tpo.bench.BenchCargaScrims [scrims] [repeticiones] [streaming|arbol] [archivo]}
+ */
+public final class BenchCargaScrims {
+
+    private BenchCargaScrims() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String modo = args.length > 2 ? args[2] : "streaming";
+        if (!modo.equals("streaming") && !modo.equals("arbol")) {
+            throw new IllegalArgumentException("Modo inválido: " + modo + " (streaming|arbol)");
+        }
+
+        File archivo = args.length > 3
+                ? new File(args[3])
+                : Files.createTempDirectory("bench-scrims").resolve("scrims.json").toFile();
+        if (!archivo.exists()) {
+            generar(archivo, cantidad);
+            System.out.printf("[bench] %s generado: %,d scrims, %,d KB%n", archivo, cantidad, archivo.length() / 1024);
+        }
+
+        ScrimJsonAdapter adapter = new ScrimJsonAdapter();
+        long primera = medir(archivo, adapter, modo);
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < repeticiones; i++) {
+            mejor = Math.min(mejor, medir(archivo, adapter, modo));
+        }
+        System.out.printf("[bench] %s (%,d KB): primera carga %d ms, mejor de %d recargas %d ms%n",
+                modo, archivo.length() / 1024, primera, repeticiones, mejor);
+    }
+
+    private static long medir(File archivo, ScrimJsonAdapter adapter, String modo) throws IOException {
+        long desde = System.nanoTime();
+        List<Scrim> scrims = modo.equals("arbol") ? leerArbol(archivo, adapter) : leerStreaming(archivo, adapter);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - desde);
+        if (scrims.isEmpty()) {
+            throw new IllegalStateException("No se cargó ningún scrim");
+        }
+        return ms;
+    }
+
+    private static List<Scrim> leerStreaming(File archivo, ScrimJsonAdapter adapter) throws IOException {
+        List<Scrim> scrims = new ArrayList<>();
+        try (JsonReader in = new JsonReader(abrir(archivo))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                in.nextName();
+                scrims.add(adapter.read(in));
+            }
+            in.endObject();
+        }
+        return scrims;
+    }
+
+    private static List<Scrim> leerArbol(File archivo, ScrimJsonAdapter adapter) throws IOException {
+        List<Scrim> scrims = new ArrayList<>();
+        try (BufferedReader in = abrir(archivo)) {
+            for (Map.Entry<String, JsonElement> entrada : JsonParser.parseReader(in).getAsJsonObject().entrySet()) {
+                scrims.add(adapter.fromJsonTree(entrada.getValue()));
+            }
+        }
+        return scrims;
+    }
+
+    private static BufferedReader abrir(File archivo) throws IOException {
+        return Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8);
+    }
+
+    // Scrims con equipos completos y agenda, escritos por el propio repositorio
+    private static void generar(File archivo, int cantidad) {
+        LocalDateTime inicio = LocalDateTime.of(2026, 1, 1, 18, 0);
+        List<Scrim> scrims = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Scrim scrim = Scrim.restaurar(String.valueOf(i), "Valorant", "org" + (i % 500) + "@bench", 1000, 2000, 5,
+                    "5v5", "LAS", 80, "ranked", BuscandoJugadoresState.INSTANCIA,
+                    inicio.plusHours(i % 720), inicio.plusHours(i % 720 + 1));
+            for (int j = 0; j < 10; j++) {
+                String equipo = j < 5 ? scrim.getEquipo1().getNombre() : scrim.getEquipo2().getNombre();
+                scrim.agregarJugadorAEquipoDirecto("jugador" + ((i * 10 + j) % 20_000) + "@bench", equipo);
+            }
+            scrims.add(scrim);
+        }
+        try (JsonScrimRepository repo = new JsonScrimRepository(archivo.getPath())) {
+            repo.guardarTodos(scrims);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ar.edu.tpo.bench;
+
+import ar.edu.tpo.domain.Organizador;
+import ar.edu.tpo.domain.RelojSimulado;
+import ar.edu.tpo.domain.Usuario;
+import ar.edu.tpo.service.PlanificadorTareas;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark de vencimientos y del planificador en tiempo simulado: un
+ * {@link RelojSimulado} recorre un día entero sin esperar en tiempo real.
+ *
+ * Uso: {@code java ar.edu.tpo.bench.BenchVencimientos [usuarios] [tareas] [carriles]}
+ */
+public final class BenchVencimientos {
+
+    private static final Duration DIA = Duration.ofDays(1);
+    private static final Duration PASO = Duration.ofMinutes(1);
+    private static final Duration PASO_PLANIFICADOR = Duration.ofMillis(500);
+
+    private BenchVencimientos() {
+    }
+
+    public static void main(String[] args) {
+        int cantidadUsuarios = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cantidadTareas = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int carriles = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Random random = new Random(42);
+
+        medirVencimientos(cantidadUsuarios, random);
+        medirPlanificador(cantidadTareas, carriles, random);
+    }
+
+    // Consulta tieneSancionesActivas de todos los usuarios en cada paso del día
+    private static void medirVencimientos(int cantidadUsuarios, Random random) {
+        RelojSimulado reloj = new RelojSimulado(Instant.parse("2026-01-01T00:00:00Z"), ZoneId.of("UTC"));
+        List<Usuario> usuarios = new ArrayList<>(cantidadUsuarios);
+        for (int i = 0; i < cantidadUsuarios; i++) {
+            Usuario usuario = new Organizador("u" + i, "u" + i + "@bench", "x");
+            usuario.agregarSancion("bench", Duration.ofMinutes(1 + random.nextInt((int) DIA.toMinutes())), reloj);
+            usuarios.add(usuario);
+        }
+        long consultas = 0;
+        long sancionados = 0;
+        long desde = System.nanoTime();
+        for (long paso = 0; paso < DIA.dividedBy(PASO); paso++) {
+            long ahoraMs = reloj.millis();
+            for (Usuario usuario : usuarios) {
+                if (usuario.tieneSancionesActivas(ahoraMs)) {
+                    sancionados++;
+                }
+            }
+            consultas += usuarios.size();
+            reloj.avanzar(PASO);
+        }
+        long nanos = System.nanoTime() - desde;
+        System.out.printf("[bench] vencimientos: %,d consultas en %d ms (%,.0f por segundo, %,d sancionados)%n",
+                consultas, nanos / 1_000_000, consultas * 1e9 / nanos, sancionados);
+    }
+
+    // Agenda tareas repartidas en el día y avanza el reloj de a un paso corto,
+    // esperando en cada uno a que corran las que vencieron: así el lag simulado
+    // queda por debajo del umbral de tareas lentas
+    private static void medirPlanificador(int cantidadTareas, int carriles, Random random) {
+        RelojSimulado reloj = new RelojSimulado(Instant.parse("2026-01-01T00:00:00Z"), ZoneId.of("UTC"));
+        try (PlanificadorTareas planificador = new PlanificadorTareas("Bench", carriles, reloj)) {
+            long inicioMs = reloj.millis();
+            long[] vencimientos = new long[cantidadTareas];
+            for (int i = 0; i < cantidadTareas; i++) {
+                vencimientos[i] = inicioMs + (long) (random.nextDouble() * DIA.toMillis());
+            }
+            long desde = System.nanoTime();
+            for (int i = 0; i < cantidadTareas; i++) {
+                planificador.programar("clave-" + (i % 10_000), "tarea " + i, vencimientos[i], () -> { });
+            }
+            long agendadoNanos = System.nanoTime() - desde;
+            Arrays.sort(vencimientos);
+            int vencidas = 0;
+            while (vencidas < cantidadTareas) {
+                reloj.avanzar(PASO_PLANIFICADOR);
+                while (vencidas < cantidadTareas && vencimientos[vencidas] <= reloj.millis()) {
+                    vencidas++;
+                }
+                while (planificador.getEjecutadas() < vencidas) {
+                    Thread.yield();
+                }
+            }
+            long nanos = System.nanoTime() - desde;
+            System.out.printf("[bench] planificador: %,d tareas (%d carriles) agendadas en %d ms, ejecutadas en %d ms (%,.0f por segundo)%n",
+                    cantidadTareas, carriles, agendadoNanos / 1_000_000, nanos / 1_000_000, cantidadTareas * 1e9 / nanos);
+            System.out.println("[bench] " + planificador.resumen());
+        }
+    }
+}
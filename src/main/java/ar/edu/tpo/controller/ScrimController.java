@@ -4,6 +4,7 @@ import ar.edu.tpo.domain.Jugador;
 import ar.edu.tpo.domain.Organizador;
 import ar.edu.tpo.domain.Usuario;
 import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.repository.Pagina;
 import ar.edu.tpo.service.ArgentinaTimeZone;
 import ar.edu.tpo.service.UsuarioActualPort;
 import ar.edu.tpo.service.scrim.ScrimCicloDeVidaService;
@@ -14,6 +15,8 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
 public class ScrimController {
+    private static final int TAMANIO_PAGINA = 50;
+
     private final ScrimCicloDeVidaService lifecycleService;
     private final ScrimLobbyService lobbyService;
     private final ScrimStatsService statsService;
@@ -72,8 +75,35 @@ public class ScrimController {
     // ================== LISTAR ==================
     public void listar(){ 
         // Permitido para todos los tipos de usuarios
-        lifecycleService.listarScrims()
-                .forEach(scrim -> System.out.println(formatearResumenConEstado(scrim)));
+        String cursor = null;
+        do {
+            Pagina<Scrim> pagina = lifecycleService.listarScrims(cursor, TAMANIO_PAGINA);
+            pagina.elementos().forEach(scrim -> System.out.println(formatearResumenConEstado(scrim)));
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+    }
+
+    public void listarAbiertasPara(Jugador jugador) {
+        var abiertas = lifecycleService.listarAbiertasPara(jugador);
+        if (abiertas.isEmpty()) {
+            System.out.println("No hay scrims abiertas para tu región, MMR y latencia.");
+            return;
+        }
+        abiertas.forEach(scrim -> System.out.println(formatearResumenConEstado(scrim)));
+    }
+
+    public void listarMisScrims(String email) {
+        var scrims = lifecycleService.listarScrimsDe(email);
+        if (scrims.isEmpty()) {
+            System.out.println("No participás en ningún scrim.");
+            return;
+        }
+        for (Scrim scrim : scrims) {
+            String rol = scrim.getEmailCreador().equalsIgnoreCase(email) ? "creador"
+                    : scrim.estaEnListaEspera(email) ? "suplente"
+                    : "jugador";
+            System.out.println(formatearResumenConEstado(scrim) + " | Rol: " + rol);
+        }
     }
 
     private String formatearResumenConEstado(Scrim scrim) {
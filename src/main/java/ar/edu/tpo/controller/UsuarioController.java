@@ -4,9 +4,12 @@ import ar.edu.tpo.domain.Usuario;
 import ar.edu.tpo.domain.rangos.StateRangos;
 import ar.edu.tpo.domain.regiones.StateRegion;
 import ar.edu.tpo.domain.roles.StateRoles;
+import ar.edu.tpo.repository.Pagina;
 import ar.edu.tpo.service.UsuarioService;
 
 public class UsuarioController {
+    private static final int TAMANIO_PAGINA = 50;
+
     private final UsuarioService service;
 
     public UsuarioController(UsuarioService service) {
@@ -36,7 +39,12 @@ public class UsuarioController {
     }
 
     public void listar() {
-        service.listar().forEach(System.out::println);
+        String cursor = null;
+        do {
+            Pagina<Usuario> pagina = service.listar(u -> true, cursor, TAMANIO_PAGINA);
+            pagina.elementos().forEach(System.out::println);
+            cursor = pagina.siguiente();
+        } while (cursor != null);
     }
 
     public void buscar(String email) {
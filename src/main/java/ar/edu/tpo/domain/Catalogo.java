@@ -0,0 +1,54 @@
+package ar.edu.tpo.domain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Conjunto fijo e inmutable de opciones (rangos, regiones, roles) que se arma
+ * una sola vez. Listar devuelve siempre la misma lista y buscar por nombre es
+ * un acceso a un mapa: si el nombre viene escrito igual que el registrado no
+ * se crea ningún objeto.
+ */
+public final class Catalogo<T> {
+
+    private final List<T> elementos;
+    private final Map<String, T> porNombre = new HashMap<>();
+    private final Map<String, T> porNombreNormalizado = new HashMap<>();
+
+    public Catalogo(List<T> elementos, Function<T, String> nombre) {
+        if (elementos.isEmpty()) {
+            throw new IllegalArgumentException("El catálogo necesita al menos un elemento");
+        }
+        this.elementos = List.copyOf(elementos);
+        for (T elemento : this.elementos) {
+            String clave = nombre.apply(elemento);
+            porNombre.putIfAbsent(clave, elemento);
+            porNombreNormalizado.putIfAbsent(clave.toLowerCase(Locale.ROOT), elemento);
+        }
+    }
+
+    public List<T> todos() {
+        return elementos;
+    }
+
+    public T primero() {
+        return elementos.get(0);
+    }
+
+    /**
+     * Busca sin distinguir mayúsculas ni espacios alrededor; null si no existe.
+     */
+    public T porNombre(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        T exacto = porNombre.get(nombre);
+        if (exacto != null) {
+            return exacto;
+        }
+        return porNombreNormalizado.get(nombre.trim().toLowerCase(Locale.ROOT));
+    }
+}
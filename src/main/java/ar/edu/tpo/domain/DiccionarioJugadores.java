@@ -0,0 +1,40 @@
+package ar.edu.tpo.domain;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Diccionario de emails de jugadores: para un mismo email devuelve siempre la
+ * misma instancia de String. Al cargar scrims, equipos, estadísticas y
+ * suplentes comparten así cada email en lugar de tener una copia por
+ * aparición, y comparar dos jugadores se resuelve casi siempre por referencia.
+ *
+ * Cada repositorio de scrims tiene el suyo y se lo pasa a los adaptadores que
+ * leen de disco. Las entradas se liberan solas cuando ningún scrim referencia
+ * ya el email.
+ */
+public final class DiccionarioJugadores {
+
+    private final Map<String, WeakReference<String>> emails = new WeakHashMap<>();
+
+    /**
+     * La instancia compartida del email (null si es null).
+     */
+    public synchronized String compartido(String email) {
+        if (email == null) {
+            return null;
+        }
+        WeakReference<String> referencia = emails.get(email);
+        String existente = referencia != null ? referencia.get() : null;
+        if (existente != null) {
+            return existente;
+        }
+        emails.put(email, new WeakReference<>(email));
+        return email;
+    }
+
+    public synchronized int cantidad() {
+        return emails.size();
+    }
+}
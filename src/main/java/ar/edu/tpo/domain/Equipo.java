@@ -3,15 +3,31 @@ package ar.edu.tpo.domain;
 import java.util.*;
 
 /**
- * Representa un equipo en un scrim.
+ * Representa un equipo en un scrim. Los integrantes se guardan en orden de
+ * llegada en un arreglo: un equipo tiene pocos jugadores, así que recorrerlo
+ * es más barato que cualquier hash. Para recorrerlos sin armar colecciones
+ * están {@link #getCantidadJugadores} y {@link #getJugador}; el conjunto de
+ * {@link #getJugadores} se arma en cada llamada y queda para la interfaz.
  */
 public class Equipo {
     private final String nombre;
-    private final Set<String> jugadores;
+    private String[] jugadores = new String[5];
+    private int cantidad;
+    private boolean sellado;
 
     public Equipo(String nombre) {
         this.nombre = Objects.requireNonNull(nombre);
-        this.jugadores = new LinkedHashSet<>();
+    }
+
+    // Ver Scrim#sellar
+    void sellar() {
+        sellado = true;
+    }
+
+    private void verificarEditable() {
+        if (sellado) {
+            throw new IllegalStateException("El equipo " + nombre + " de un scrim publicado es de solo lectura");
+        }
     }
 
     public String getNombre() {
@@ -19,33 +35,87 @@ public class Equipo {
     }
 
     public Set<String> getJugadores() {
-        return Collections.unmodifiableSet(jugadores);
+        Set<String> emails = new LinkedHashSet<>();
+        for (int i = 0; i < cantidad; i++) {
+            emails.add(jugadores[i]);
+        }
+        return Collections.unmodifiableSet(emails);
+    }
+
+    /**
+     * Email del integrante en esa posición, en orden de llegada
+     * ({@code 0 <= posicion < getCantidadJugadores()}).
+     */
+    public String getJugador(int posicion) {
+        Objects.checkIndex(posicion, cantidad);
+        return jugadores[posicion];
     }
 
     public void agregarJugador(String email) {
-        jugadores.add(email);
+        verificarEditable();
+        if (posicion(email) >= 0) {
+            return;
+        }
+        if (cantidad == jugadores.length) {
+            jugadores = Arrays.copyOf(jugadores, cantidad * 2);
+        }
+        jugadores[cantidad++] = email;
     }
 
     public void quitarJugador(String email) {
-        jugadores.remove(email);
+        verificarEditable();
+        int i = posicion(email);
+        if (i < 0) {
+            return;
+        }
+        System.arraycopy(jugadores, i + 1, jugadores, i, cantidad - i - 1);
+        jugadores[--cantidad] = null;
     }
 
     public int getCantidadJugadores() {
-        return jugadores.size();
+        return cantidad;
     }
 
     public boolean contieneJugador(String email) {
-        return jugadores.contains(email);
+        return posicion(email) >= 0;
+    }
+
+    /**
+     * Como {@link #contieneJugador} pero sin distinguir mayúsculas.
+     */
+    public boolean contieneJugadorIgnorandoMayusculas(String email) {
+        for (int i = 0; i < cantidad; i++) {
+            if (email != null && email.equalsIgnoreCase(jugadores[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copia los integrantes de otro equipo; los emails se comparten.
+     */
+    void copiarJugadoresDe(Equipo otro) {
+        verificarEditable();
+        jugadores = Arrays.copyOf(otro.jugadores, Math.max(otro.cantidad, 1));
+        cantidad = otro.cantidad;
+    }
+
+    // Los emails cargados de disco son la misma instancia: equals corta por referencia
+    private int posicion(String email) {
+        for (int i = 0; i < cantidad; i++) {
+            if (Objects.equals(jugadores[i], email)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
     public String toString() {
         return "Equipo{" +
                 "nombre='" + nombre + '\'' +
-                ", jugadores=" + jugadores.size() +
+                ", jugadores=" + cantidad +
                 '}';
     }
 }
-
-
-
@@ -5,6 +5,7 @@ import ar.edu.tpo.domain.rangos.StateRangos;
 import ar.edu.tpo.domain.regiones.StateRegion;
 import ar.edu.tpo.domain.roles.StateRoles;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -126,13 +127,12 @@ public class Jugador extends Usuario {
     }
 
     @Override
-    public SancionActiva agregarSancion(String motivo, Duration duracion) {
+    public SancionActiva agregarSancion(String motivo, Duration duracion, Clock clock) {
         if (motivo == null || motivo.isBlank()) {
             return null;
         }
-        SancionActiva sancion = SancionActiva.porDuracion(motivo.trim(), duracion);
-        sancionesActivas.add(sancion);
-        removerSancionesVencidas();
+        SancionActiva sancion = SancionActiva.porDuracion(motivo.trim(), duracion, clock);
+        registrarSancion(sancion, clock);
         return sancion;
     }
 
@@ -1,5 +1,6 @@
 package ar.edu.tpo.domain;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.List;
 
@@ -18,13 +19,12 @@ public class Organizador extends Usuario {
     }
 
     @Override
-    public SancionActiva agregarSancion(String motivo, Duration duracion) {
+    public SancionActiva agregarSancion(String motivo, Duration duracion, Clock clock) {
         if (motivo == null || motivo.isBlank()) {
             return null;
         }
-        SancionActiva sancion = SancionActiva.porDuracion(motivo.trim(), duracion);
-        sancionesActivas.add(sancion);
-        removerSancionesVencidas();
+        SancionActiva sancion = SancionActiva.porDuracion(motivo.trim(), duracion, clock);
+        registrarSancion(sancion, clock);
         return sancion;
     }
 
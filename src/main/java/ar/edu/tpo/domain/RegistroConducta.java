@@ -1,6 +1,7 @@
 package ar.edu.tpo.domain;
 
 import ar.edu.tpo.domain.motivo.Motivo;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,8 +10,10 @@ import java.util.List;
 public class RegistroConducta {
     public static record Entrada(String email, String motivo, LocalDateTime fecha) {}
     private final List<Entrada> historial = new ArrayList<>();
+    private final Clock clock;
+    public RegistroConducta(Clock clock){ this.clock = clock; }
     public void registrar(String emailJugador, Motivo motivo){
-        historial.add(new Entrada(emailJugador, motivo.nombre(), LocalDateTime.now()));
+        historial.add(new Entrada(emailJugador, motivo.nombre(), LocalDateTime.now(clock)));
         motivo.aplicarSancion(emailJugador);
     }
     public List<Entrada> getHistorial(){ return List.copyOf(historial); }
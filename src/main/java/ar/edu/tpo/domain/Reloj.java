@@ -0,0 +1,48 @@
+package ar.edu.tpo.domain;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conversiones entre las fechas que se muestran y persisten
+ * ({@link LocalDateTime}) y los instantes en epoch millis ({@code long}) con
+ * los que se comparan los vencimientos.
+ *
+ * La hora actual no sale de acá: cada servicio recibe su {@link Clock} por
+ * constructor y se lo pasa al dominio cuando hace falta. Las fechas de
+ * sanciones se interpretan en {@link #ZONA_LOCAL} y las agendas de scrims en
+ * la de Argentina.
+ */
+public final class Reloj {
+
+    public static final ZoneId ZONA_ARGENTINA = ZoneId.of("America/Argentina/Buenos_Aires");
+    // Zona de las fechas de sanciones, las mismas que daba LocalDateTime.now()
+    public static final ZoneId ZONA_LOCAL = ZoneId.systemDefault();
+    // Instante de una fecha ausente: anterior a cualquier otro
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private Reloj() {
+    }
+
+    /**
+     * Instante de una fecha en la zona indicada, o {@link #SIN_FECHA} si es
+     * null. Las fechas fuera del rango de un {@code long} se saturan.
+     */
+    public static long aMs(LocalDateTime fecha, ZoneId zona) {
+        if (fecha == null) {
+            return SIN_FECHA;
+        }
+        try {
+            return fecha.atZone(zona).toInstant().toEpochMilli();
+        } catch (ArithmeticException e) {
+            return fecha.getYear() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+    }
+
+    /** Fecha en la zona indicada que corresponde a un instante. */
+    public static LocalDateTime aFecha(long ms, ZoneId zona) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(ms), zona);
+    }
+}
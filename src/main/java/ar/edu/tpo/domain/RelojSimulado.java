@@ -0,0 +1,82 @@
+package ar.edu.tpo.domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Clock} que solo avanza cuando se lo pide, para reproducir
+ * vencimientos y correr benchmarks en tiempo simulado.
+ *
+ * Quien espera un vencimiento medido con este reloj (por ejemplo el
+ * planificador de tareas) se registra con {@link #alAvanzar} y recibe un aviso
+ * cada vez que el tiempo avanza: dormir en tiempo real no sirve, porque el
+ * reloj no se mueve solo.
+ */
+public final class RelojSimulado extends Clock {
+
+    private final AtomicLong ahoraMs;
+    private final List<Runnable> oyentes;
+    private final ZoneId zona;
+
+    public RelojSimulado(Instant inicio, ZoneId zona) {
+        this(new AtomicLong(inicio.toEpochMilli()), new CopyOnWriteArrayList<>(), zona);
+    }
+
+    // Las vistas en otra zona comparten el instante y los oyentes
+    private RelojSimulado(AtomicLong ahoraMs, List<Runnable> oyentes, ZoneId zona) {
+        this.ahoraMs = ahoraMs;
+        this.oyentes = oyentes;
+        this.zona = Objects.requireNonNull(zona, "zona requerida");
+    }
+
+    /**
+     * Registra una acción que se ejecuta, en el hilo que avanza el reloj,
+     * después de cada avance.
+     */
+    public void alAvanzar(Runnable oyente) {
+        oyentes.add(Objects.requireNonNull(oyente, "oyente requerido"));
+    }
+
+    public void avanzar(Duration duracion) {
+        if (duracion.isNegative()) {
+            throw new IllegalArgumentException("El reloj simulado no retrocede");
+        }
+        ahoraMs.addAndGet(duracion.toMillis());
+        oyentes.forEach(Runnable::run);
+    }
+
+    /**
+     * Lleva el reloj hasta {@code instanteMs}; si ya pasó, no hace nada.
+     */
+    public void avanzarHasta(long instanteMs) {
+        if (ahoraMs.accumulateAndGet(instanteMs, Math::max) == instanteMs) {
+            oyentes.forEach(Runnable::run);
+        }
+    }
+
+    @Override
+    public long millis() {
+        return ahoraMs.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ahoraMs.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zona;
+    }
+
+    @Override
+    public Clock withZone(ZoneId otraZona) {
+        return otraZona.equals(zona) ? this : new RelojSimulado(ahoraMs, oyentes, otraZona);
+    }
+}
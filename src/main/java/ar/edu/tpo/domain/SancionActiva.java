@@ -1,5 +1,6 @@
 package ar.edu.tpo.domain;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -7,17 +8,28 @@ import java.util.Objects;
 public class SancionActiva {
     private final String motivo;
     private final LocalDateTime expiraEn;
+    // Instante de expiración; Long.MAX_VALUE si no vence
+    private final long expiraEnMs;
 
+    /**
+     * @param expiraEn fecha de expiración en {@link Reloj#ZONA_LOCAL}, o null si no vence
+     */
     public SancionActiva(String motivo, LocalDateTime expiraEn) {
+        this(motivo, expiraEn, expiraEn == null ? Long.MAX_VALUE : Reloj.aMs(expiraEn, Reloj.ZONA_LOCAL));
+    }
+
+    private SancionActiva(String motivo, LocalDateTime expiraEn, long expiraEnMs) {
         this.motivo = Objects.requireNonNull(motivo, "motivo requerido");
         this.expiraEn = expiraEn;
+        this.expiraEnMs = expiraEnMs;
     }
 
-    public static SancionActiva porDuracion(String motivo, Duration duracion) {
+    public static SancionActiva porDuracion(String motivo, Duration duracion, Clock clock) {
         if (duracion == null) {
             return new SancionActiva(motivo, null);
         }
-        return new SancionActiva(motivo, LocalDateTime.now().plus(duracion));
+        long expiraEnMs = clock.millis() + duracion.toMillis();
+        return new SancionActiva(motivo, Reloj.aFecha(expiraEnMs, Reloj.ZONA_LOCAL), expiraEnMs);
     }
 
     public String getMotivo() {
@@ -28,8 +40,12 @@ public class SancionActiva {
         return expiraEn;
     }
 
-    public boolean estaActiva() {
-        return expiraEn == null || LocalDateTime.now().isBefore(expiraEn);
+    public long getExpiraEnMs() {
+        return expiraEnMs;
+    }
+
+    public boolean estaActiva(long ahoraMs) {
+        return ahoraMs < expiraEnMs;
     }
 
     public SancionHistorica aHistorica(LocalDateTime levantadaEn) {
@@ -21,9 +21,11 @@ public class Scrim {
     private final int latenciaMaxMs;
     private final String modalidad;
 
-    // Agenda dentro del scrim
+    // Agenda dentro del scrim (hora de Argentina) y sus instantes en epoch millis
     private LocalDateTime inicio;
     private LocalDateTime fin;
+    private long inicioMs = Reloj.SIN_FECHA;
+    private long finMs = Reloj.SIN_FECHA;
 
     // EQUIPO VS EQUIPO: cupo = jugadores por equipo (ej. 5 para 5v5)
     private final int cupo;                                    // jugadores por equipo
@@ -32,8 +34,12 @@ public class Scrim {
     private EstadoScrim estado = ar.edu.tpo.domain.estado.BuscandoJugadoresState.INSTANCIA;
 
     private Resultado resultado;
+    // Cantidad de veces que se guardó; el repositorio la compara para rechazar escrituras desactualizadas
+    private long version;
     private final List<Estadistica> estadisticas = new ArrayList<>();
     private final Waitlist waitlist = new Waitlist();
+    // Publicado por el repositorio: lo comparten todos los lectores y no se modifica más
+    private boolean sellado;
 
     public Scrim(String juego, String emailCreador,
                  int rangoMin, int rangoMax, int cupo,
@@ -63,13 +69,97 @@ public class Scrim {
         this.equipos = new ScrimEquipo(cupo);
     }
 
+    /**
+     * Reconstruye un scrim persistido con su id, estado y agenda tal como se
+     * guardaron, sin pasar por las transiciones ni las validaciones de agenda.
+     * Equipos, estadísticas y suplentes se cargan luego con los métodos "Directo".
+     */
+    public static Scrim restaurar(String id, String juego, String emailCreador,
+                                  int rangoMin, int rangoMax, int cupo,
+                                  String formato, String region, int latenciaMaxMs,
+                                  String modalidad, EstadoScrim estado,
+                                  LocalDateTime inicio, LocalDateTime fin) {
+        Scrim scrim = new Scrim(juego, emailCreador, rangoMin, rangoMax, cupo,
+                formato, region, latenciaMaxMs, modalidad);
+        scrim.asignarId(id);
+        scrim.estado = Objects.requireNonNull(estado, "Estado requerido");
+        scrim.fijarAgenda(inicio, fin);
+        return scrim;
+    }
+
+    /**
+     * Copia independiente con el mismo id y versión, para modificarla sin tocar
+     * la instancia que comparten los demás lectores del repositorio.
+     */
+    public Scrim copiar() {
+        Scrim copia = restaurar(id, juego, emailCreador, rangoMin, rangoMax, cupo,
+                formato, region, latenciaMaxMs, modalidad, estado, inicio, fin);
+        copia.version = version;
+        copia.getEquipo1().copiarJugadoresDe(equipos.getEquipo1());
+        copia.getEquipo2().copiarJugadoresDe(equipos.getEquipo2());
+        equipos.getConfirmacionesPorEquipo().forEach(copia::establecerConfirmacionEquipo);
+        copia.estadisticas.addAll(estadisticas);
+        waitlist.stream().forEach(copia::agregarWaitlistEntryDirecto);
+        if (resultado != null) {
+            copia.resultado = new Resultado(resultado.getGanadorEmail());
+        }
+        return copia;
+    }
+
+    /**
+     * Copia con la versión siguiente: la que publica el repositorio al guardar.
+     * Es la única forma de avanzar la versión de un scrim.
+     */
+    public Scrim copiarConVersionSiguiente() {
+        Scrim copia = copiar();
+        copia.version = version + 1;
+        return copia;
+    }
+
+    /**
+     * Versión leída de la persistencia. Solo se puede fijar al rehidratar, sobre
+     * un scrim recién restaurado: no sirve para ponerle a una copia
+     * desactualizada la versión vigente.
+     */
+    public void restaurarVersion(long versionGuardada) {
+        verificarEditable();
+        if (version != 0) {
+            throw new IllegalStateException("La versión del scrim " + id + " ya está fijada");
+        }
+        this.version = versionGuardada;
+    }
+
+    /**
+     * Lo deja de solo lectura: desde acá cualquier modificación, propia o de
+     * sus equipos, lanza {@link IllegalStateException}. El repositorio sella
+     * los scrims que publica; para cambiar uno se trabaja sobre {@link #copiar()}.
+     */
+    public void sellar() {
+        sellado = true;
+        equipos.sellar();
+    }
+
+    private void verificarEditable() {
+        if (sellado) {
+            throw new IllegalStateException("El scrim " + id + " es de solo lectura: se modifica una copia");
+        }
+    }
+
     // ===== Agenda =====
     public void programar(LocalDateTime ini, LocalDateTime fin){
         if (ini == null || fin == null) throw new IllegalArgumentException("Fechas requeridas");
         if (!fin.isAfter(ini)) throw new IllegalArgumentException("Fin debe ser posterior al inicio");
-        this.inicio = ini; this.fin = fin;
+        fijarAgenda(ini, fin);
+    }
+    public void limpiarAgenda(){ fijarAgenda(null, null); }
+
+    private void fijarAgenda(LocalDateTime ini, LocalDateTime fin) {
+        verificarEditable();
+        this.inicio = ini;
+        this.fin = fin;
+        this.inicioMs = Reloj.aMs(ini, Reloj.ZONA_ARGENTINA);
+        this.finMs = Reloj.aMs(fin, Reloj.ZONA_ARGENTINA);
     }
-    public void limpiarAgenda(){ this.inicio = null; this.fin = null; }
 
     // ===== Métodos públicos que delegan al estado =====
     // Mantener compatibilidad: agregar jugador a un equipo
@@ -115,11 +205,13 @@ public class Scrim {
     // ===== Métodos públicos para que los estados modifiquen el scrim =====
     // (públicos porque los estados están en un subpaquete)
     public void agregarJugadorAEquipoDirecto(String email, String nombreEquipo){
+        verificarEditable();
         waitlist.quitar(email);
         equipos.agregarJugadorAEquipo(email, nombreEquipo);
     }
 
     public void quitarJugadorDirecto(String email){
+        verificarEditable();
         equipos.quitarJugador(email);
     }
     
@@ -128,20 +220,25 @@ public class Scrim {
     }
 
     public void cambiarEstado(EstadoScrim nuevoEstado){
+        verificarEditable();
         this.estado = nuevoEstado;
     }
 
     public void agregarEstadisticaDirecta(Estadistica e){
+        verificarEditable();
         estadisticas.add(e);
     }
     public void agregarWaitlistEntryDirecto(WaitlistEntry entry) {
+        verificarEditable();
         waitlist.agregarDesdePersistencia(entry);
     }
-    public boolean agregarAListaEspera(String emailJugador){
-        return waitlist.agregar(emailJugador);
+    public boolean agregarAListaEspera(String emailJugador, LocalDateTime fechaSolicitud){
+        verificarEditable();
+        return waitlist.agregar(emailJugador, fechaSolicitud);
     }
 
     public boolean quitarDeListaEspera(String emailJugador) {
+        verificarEditable();
         return waitlist.quitar(emailJugador);
     }
 
@@ -157,6 +254,29 @@ public class Scrim {
         return equipos.hayCupoDisponible();
     }
 
+    /**
+     * Es el creador, integra uno de los equipos o está en la lista de suplentes.
+     */
+    public boolean participa(String email) {
+        if (email == null) {
+            return false;
+        }
+        String buscado = email.trim();
+        return emailCreador.equalsIgnoreCase(buscado)
+                || equipos.getEquipo1().contieneJugadorIgnorandoMayusculas(buscado)
+                || equipos.getEquipo2().contieneJugadorIgnorandoMayusculas(buscado)
+                || waitlist.esta(buscado);
+    }
+
+    /**
+     * Está buscando jugadores, es de la región indicada y su rango admite el MMR.
+     */
+    public boolean estaAbiertaPara(String regionJugador, int mmr) {
+        return estado instanceof ar.edu.tpo.domain.estado.BuscandoJugadoresState
+                && regionJugador != null && region.equalsIgnoreCase(regionJugador.trim())
+                && mmr >= rangoMin && mmr <= rangoMax;
+    }
+
     // ===== Getters =====
     public String getId(){ return id; }
     public String getJuego(){ return juego; }
@@ -170,6 +290,10 @@ public class Scrim {
     public EstadoScrim getEstado(){ return estado; }
     public LocalDateTime getInicio(){ return inicio; }
     public LocalDateTime getFin(){ return fin; }
+    /** Instante de inicio en epoch millis, o {@link Reloj#SIN_FECHA} si no está agendado. */
+    public long getInicioMs(){ return inicioMs; }
+    /** Instante de fin en epoch millis, o {@link Reloj#SIN_FECHA} si no está agendado. */
+    public long getFinMs(){ return finMs; }
     public int getCupo(){ return cupo; }
     public Equipo getEquipo1(){ return equipos.getEquipo1(); }
     public Equipo getEquipo2(){ return equipos.getEquipo2(); }
@@ -199,8 +323,12 @@ public class Scrim {
         return equipos.ambosEquiposConfirmados();
     }
 
-    public Resultado getResultado(){ return resultado; }
-    public void setResultado(Resultado r){ this.resultado = r; }
+    public long getVersion(){ return version; }
+    // Resultado es mutable: de un scrim sellado se entrega una copia
+    public Resultado getResultado(){
+        return sellado && resultado != null ? new Resultado(resultado.getGanadorEmail()) : resultado;
+    }
+    public void setResultado(Resultado r){ verificarEditable(); this.resultado = r; }
     public List<WaitlistEntry> getListaEspera(){ return waitlist.comoListaInmutable(); }
     public List<Estadistica> getEstadisticas(){ return Collections.unmodifiableList(estadisticas); }
 
@@ -214,20 +342,18 @@ public class Scrim {
                     estado.getNombre(), ventana);
     }
 
-    // Serialización JSON delegada a ar.edu.tpo.repository.json.ScrimJsonAdapter
+    // Serialización JSON delegada a ar.edu.tpo.repository.json.ScrimJsonAdapter (rehidrata vía restaurar)
 
     private String nombreRangoPara(int puntos) {
-        return StateRangos.disponibles().stream()
-                .filter(r -> puntos >= r.getMinimo() && puntos <= r.getMaximo())
-                .map(StateRangos::getNombre)
-                .findFirst()
-                .orElse(puntos + " MMR");
+        StateRangos rango = StateRangos.paraPuntos(puntos);
+        return rango != null ? rango.getNombre() : puntos + " MMR";
     }
 
     public void asignarId(String nuevoId) {
         if (nuevoId == null || nuevoId.isBlank()) {
             throw new IllegalArgumentException("El ID del scrim no puede ser vacío.");
         }
+        verificarEditable();
         if (this.id != null && !this.id.equals(nuevoId)) {
             throw new IllegalStateException("El scrim ya tiene un ID asignado.");
         }
@@ -235,10 +361,12 @@ public class Scrim {
     }
 
     public void establecerConfirmacionEquipo(String nombreEquipo, boolean confirmado) {
+        verificarEditable();
         equipos.establecerConfirmacion(nombreEquipo, confirmado);
     }
 
     public void reiniciarConfirmacionesDeEquipos() {
+        verificarEditable();
         equipos.reiniciarConfirmaciones();
     }
 
@@ -17,6 +17,7 @@ public class ScrimEquipo {
     private final Equipo equipo1;
     private final Equipo equipo2;
     private final LinkedHashMap<String, Boolean> confirmaciones = new LinkedHashMap<>();
+    private boolean sellado;
 
     public ScrimEquipo(int cupo) {
         if (cupo <= 0) {
@@ -29,6 +30,19 @@ public class ScrimEquipo {
         confirmaciones.put(equipo2.getNombre(), Boolean.FALSE);
     }
 
+    // Ver Scrim#sellar
+    void sellar() {
+        sellado = true;
+        equipo1.sellar();
+        equipo2.sellar();
+    }
+
+    private void verificarEditable() {
+        if (sellado) {
+            throw new IllegalStateException("Los equipos de un scrim publicado son de solo lectura");
+        }
+    }
+
     public Equipo getEquipo1() {
         return equipo1;
     }
@@ -49,6 +63,7 @@ public class ScrimEquipo {
     }
 
     public void agregarJugadorAEquipo(String email, String nombreEquipo) {
+        verificarEditable();
         Equipo equipo = obtenerEquipoPorNombre(nombreEquipo);
         if (equipo.getCantidadJugadores() >= cupo) {
             throw new IllegalStateException("El equipo " + nombreEquipo + " tiene el cupo completo (" + cupo + " jugadores)");
@@ -58,6 +73,7 @@ public class ScrimEquipo {
     }
 
     public void quitarJugador(String email) {
+        verificarEditable();
         boolean removido = false;
         if (equipo1.contieneJugador(email)) {
             equipo1.quitarJugador(email);
@@ -78,6 +94,7 @@ public class ScrimEquipo {
     }
 
     public void establecerConfirmacion(String nombreEquipo, boolean valor) {
+        verificarEditable();
         Equipo equipo = obtenerEquipoPorNombre(nombreEquipo);
         if (valor && equipo.getCantidadJugadores() == 0) {
             throw new IllegalStateException("El equipo " + nombreEquipo + " no tiene jugadores para confirmar");
@@ -104,6 +121,7 @@ public class ScrimEquipo {
     }
 
     public void reiniciarConfirmaciones() {
+        verificarEditable();
         confirmaciones.replaceAll((k, v) -> Boolean.FALSE);
     }
 
@@ -130,8 +148,8 @@ public class ScrimEquipo {
 
     public Set<String> getJugadores() {
         Set<String> jugadores = new LinkedHashSet<>();
-        jugadores.addAll(equipo1.getJugadores());
-        jugadores.addAll(equipo2.getJugadores());
+        agregarJugadores(jugadores, equipo1);
+        agregarJugadores(jugadores, equipo2);
         return jugadores;
     }
 
@@ -141,9 +159,22 @@ public class ScrimEquipo {
 
     public Map<String, Boolean> getConfirmacionesPorJugador() {
         LinkedHashMap<String, Boolean> resultado = new LinkedHashMap<>();
-        equipo1.getJugadores().forEach(j -> resultado.put(j, confirmaciones.getOrDefault(equipo1.getNombre(), Boolean.FALSE)));
-        equipo2.getJugadores().forEach(j -> resultado.put(j, confirmaciones.getOrDefault(equipo2.getNombre(), Boolean.FALSE)));
+        agregarConfirmaciones(resultado, equipo1);
+        agregarConfirmaciones(resultado, equipo2);
         return Collections.unmodifiableMap(resultado);
     }
+
+    private static void agregarJugadores(Set<String> jugadores, Equipo equipo) {
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            jugadores.add(equipo.getJugador(i));
+        }
+    }
+
+    private void agregarConfirmaciones(Map<String, Boolean> resultado, Equipo equipo) {
+        Boolean confirmado = confirmaciones.getOrDefault(equipo.getNombre(), Boolean.FALSE);
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            resultado.put(equipo.getJugador(i), confirmado);
+        }
+    }
 }
 
@@ -1,5 +1,6 @@
 package ar.edu.tpo.domain;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -8,6 +9,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 public abstract class Usuario {
+    // Sin sanciones activas: cualquier instante queda después
+    private static final long SIN_SANCION = Long.MIN_VALUE;
+    // Sanción sin fecha de expiración
+    private static final long INDEFINIDA = Long.MAX_VALUE;
+
     private String id;
     private final String nombre;
     private final String email;
@@ -16,6 +22,10 @@ public abstract class Usuario {
     protected final List<SancionHistorica> sancionesHistoricas;
     private int strikeCount;
     private boolean suspendido;
+    // Instantes en epoch millis que se recalculan en cada cambio de sanciones;
+    // las lecturas solo los comparan con la hora actual
+    private volatile long sancionadoHastaMs = SIN_SANCION;
+    private volatile long proximoVencimientoMs = INDEFINIDA;
 
     protected Usuario(String nombre, String email, String passwordHash) {
         this(null, nombre, email, passwordHash, null, null, null, null);
@@ -59,6 +69,7 @@ public abstract class Usuario {
         }
         this.strikeCount = strikeCount != null ? strikeCount : 0;
         this.suspendido = suspendido != null ? suspendido : false;
+        recalcularVencimientos();
     }
 
     public String getId() { return id; }
@@ -68,18 +79,54 @@ public abstract class Usuario {
     public int getStrikeCount() { return strikeCount; }
     public boolean estaSuspendido() { return suspendido; }
 
-    public List<SancionActiva> getSancionesActivas() {
-        depurarSancionesVencidas();
-        return Collections.unmodifiableList(sancionesActivas);
+    /**
+     * Sanciones que siguen vigentes en {@code ahoraMs}. No modifica al
+     * usuario: si alguna venció y el scheduler todavía no la levantó, se omite
+     * de la lista.
+     */
+    public List<SancionActiva> getSancionesActivas(long ahoraMs) {
+        if (ahoraMs < proximoVencimientoMs) {
+            return Collections.unmodifiableList(sancionesActivas);
+        }
+        return sancionesActivas.stream().filter(s -> s.estaActiva(ahoraMs)).toList();
     }
 
     public List<SancionHistorica> getSancionesHistoricas() {
         return Collections.unmodifiableList(sancionesHistoricas);
     }
 
-    public boolean tieneSancionesActivas() {
-        depurarSancionesVencidas();
-        return !sancionesActivas.isEmpty();
+    public boolean tieneSancionesActivas(long ahoraMs) {
+        return ahoraMs < sancionadoHastaMs;
+    }
+
+    /**
+     * Hasta cuándo está sancionado: la expiración más lejana de sus sanciones
+     * activas, {@link LocalDateTime#MAX} si alguna es indefinida o null si no
+     * tiene sanciones.
+     */
+    public LocalDateTime getSancionadoHasta() {
+        long hasta = sancionadoHastaMs;
+        if (hasta == SIN_SANCION) {
+            return null;
+        }
+        return hasta == INDEFINIDA ? LocalDateTime.MAX : Reloj.aFecha(hasta, Reloj.ZONA_LOCAL);
+    }
+
+    /**
+     * Expiración más próxima entre sus sanciones activas, o null si ninguna
+     * vence sola.
+     */
+    public LocalDateTime getProximoVencimiento() {
+        long proximo = proximoVencimientoMs;
+        return proximo == INDEFINIDA ? null : Reloj.aFecha(proximo, Reloj.ZONA_LOCAL);
+    }
+
+    /**
+     * Igual que {@link #getProximoVencimiento()} en epoch millis, o
+     * {@link Long#MAX_VALUE} si ninguna sanción vence sola.
+     */
+    public long getProximoVencimientoMs() {
+        return proximoVencimientoMs;
     }
 
     public int incrementarStrike() {
@@ -91,51 +138,74 @@ public abstract class Usuario {
         suspendido = true;
     }
 
-    public void limpiarSanciones() {
+    public void limpiarSanciones(Clock clock) {
         if (!sancionesActivas.isEmpty()) {
-            LocalDateTime levantadaEn = LocalDateTime.now();
+            LocalDateTime levantadaEn = LocalDateTime.now(clock);
             sancionesActivas.forEach(s -> sancionesHistoricas.add(s.aHistorica(levantadaEn)));
         }
         sancionesActivas.clear();
+        recalcularVencimientos();
+    }
+
+    /**
+     * Agrega una sanción nueva y descarta las que ya vencieron.
+     */
+    protected void registrarSancion(SancionActiva sancion, Clock clock) {
+        sancionesActivas.add(sancion);
+        depurarSancionesVencidas(clock);
     }
 
-    public List<SancionHistorica> removerSancionesVencidas() {
-        return depurarSancionesVencidas();
+    public List<SancionHistorica> removerSancionesVencidas(Clock clock) {
+        return depurarSancionesVencidas(clock);
     }
 
-    private List<SancionHistorica> depurarSancionesVencidas() {
+    private List<SancionHistorica> depurarSancionesVencidas(Clock clock) {
         List<SancionHistorica> removidas = new ArrayList<>();
         Iterator<SancionActiva> it = sancionesActivas.iterator();
-        LocalDateTime levantadaEn = LocalDateTime.now();
+        long ahoraMs = clock.millis();
+        LocalDateTime levantadaEn = LocalDateTime.now(clock);
         while (it.hasNext()) {
             SancionActiva s = it.next();
-            if (!s.estaActiva()) {
+            if (!s.estaActiva(ahoraMs)) {
                 it.remove();
                 SancionHistorica historica = s.aHistorica(levantadaEn);
                 sancionesHistoricas.add(historica);
                 removidas.add(historica);
             }
         }
+        recalcularVencimientos();
         return removidas;
     }
 
+    private void recalcularVencimientos() {
+        long hasta = SIN_SANCION;
+        long proximo = INDEFINIDA;
+        for (SancionActiva s : sancionesActivas) {
+            hasta = Math.max(hasta, s.getExpiraEnMs());
+            proximo = Math.min(proximo, s.getExpiraEnMs());
+        }
+        sancionadoHastaMs = hasta;
+        proximoVencimientoMs = proximo;
+    }
+
     public List<SancionActiva> getSancionesActivasSinDepurar() {
         return Collections.unmodifiableList(sancionesActivas);
     }
 
-    public SancionHistorica levantarSancionPorIndice(int indice) {
-        depurarSancionesVencidas();
+    public SancionHistorica levantarSancionPorIndice(int indice, Clock clock) {
+        depurarSancionesVencidas(clock);
         if (indice < 0 || indice >= sancionesActivas.size()) {
             throw new IndexOutOfBoundsException("Indice de sancion invalido");
         }
         SancionActiva sancion = sancionesActivas.remove(indice);
-        SancionHistorica historica = sancion.aHistorica(LocalDateTime.now());
+        SancionHistorica historica = sancion.aHistorica(LocalDateTime.now(clock));
         sancionesHistoricas.add(historica);
+        recalcularVencimientos();
         return historica;
     }
 
     public abstract String getTipo();
-    public abstract SancionActiva agregarSancion(String motivo, Duration duracion);
+    public abstract SancionActiva agregarSancion(String motivo, Duration duracion, Clock clock);
 
     public void asignarId(String nuevoId) {
         if (nuevoId == null || nuevoId.isBlank()) {
@@ -149,8 +219,8 @@ public abstract class Usuario {
 
     @Override
     public String toString() {
-        depurarSancionesVencidas();
-        String sanciones = sancionesActivas.isEmpty() ? "" : ", sanciones=" + sancionesActivas;
+        List<SancionActiva> activas = sancionesActivas;
+        String sanciones = activas.isEmpty() ? "" : ", sanciones=" + activas;
         return "%s{id='%s', nombre='%s', email='%s'%s}"
                 .formatted(
                         getTipo(),
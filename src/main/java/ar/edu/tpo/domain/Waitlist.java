@@ -3,61 +3,110 @@ package ar.edu.tpo.domain;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
  * Encapsula las operaciones relacionadas a la lista de suplentes del scrim.
+ *
+ * Las entradas se guardan por email normalizado en orden de llegada, así que
+ * consultar, agregar y quitar no recorren la lista. El número de orden no se
+ * reescribe en cada baja: se calcula al leer. Una entrada que ya estaba en la
+ * lista al momento de la última baja toma su posición; las agregadas después
+ * conservan el orden con el que entraron (igual que cuando se renumeraba en
+ * cada baja).
  */
 public class Waitlist {
 
-    private final List<WaitlistEntry> entradas = new ArrayList<>();
+    private static final class Nodo {
+        // Email tal como se anotó; la clave del mapa es la normalizada
+        private final String emailJugador;
+        private final LocalDateTime fechaSolicitud;
+        private final int orden;
+        private final long llegada;
 
-    public boolean agregar(String emailJugador) {
+        private Nodo(String emailJugador, LocalDateTime fechaSolicitud, int orden, long llegada) {
+            this.emailJugador = emailJugador;
+            this.fechaSolicitud = fechaSolicitud;
+            this.orden = orden;
+            this.llegada = llegada;
+        }
+    }
+
+    private final Map<String, Nodo> entradas = new LinkedHashMap<>();
+    private long llegadas;
+    // Las entradas con llegada <= a esta se numeran por posición
+    private long llegadaUltimaBaja;
+    // Los scrims publicados se leen desde varios hilos sin locks
+    private volatile List<WaitlistEntry> vista;
+
+    public boolean agregar(String emailJugador, LocalDateTime fechaSolicitud) {
         Objects.requireNonNull(emailJugador, "emailJugador requerido");
-        if (esta(emailJugador)) {
+        String clave = clave(emailJugador);
+        if (entradas.containsKey(clave)) {
             return false;
         }
-        entradas.add(new WaitlistEntry(emailJugador, LocalDateTime.now(), entradas.size() + 1));
+        entradas.put(clave, new Nodo(emailJugador, fechaSolicitud, entradas.size() + 1, ++llegadas));
+        vista = null;
         return true;
     }
 
     public boolean quitar(String emailJugador) {
         Objects.requireNonNull(emailJugador, "emailJugador requerido");
-        boolean removed = entradas.removeIf(entry -> entry.emailJugador().equalsIgnoreCase(emailJugador));
-        if (removed) {
-            reordenar();
+        if (entradas.remove(clave(emailJugador)) == null) {
+            return false;
         }
-        return removed;
+        llegadaUltimaBaja = llegadas;
+        vista = null;
+        return true;
     }
 
     public boolean esta(String emailJugador) {
-        return entradas.stream().anyMatch(entry -> entry.emailJugador().equalsIgnoreCase(emailJugador));
+        return emailJugador != null && entradas.containsKey(clave(emailJugador));
     }
 
     public boolean esVacia() {
         return entradas.isEmpty();
     }
 
+    /**
+     * Entradas en orden de llegada con su número de orden. Se arma en la
+     * primera lectura después de un cambio y se reutiliza hasta el siguiente.
+     */
     public List<WaitlistEntry> comoListaInmutable() {
-        return Collections.unmodifiableList(entradas);
+        if (vista == null) {
+            List<WaitlistEntry> lista = new ArrayList<>(entradas.size());
+            int posicion = 0;
+            for (Nodo nodo : entradas.values()) {
+                posicion++;
+                int orden = nodo.llegada <= llegadaUltimaBaja ? posicion : nodo.orden;
+                lista.add(new WaitlistEntry(nodo.emailJugador, nodo.fechaSolicitud, orden));
+            }
+            vista = Collections.unmodifiableList(lista);
+        }
+        return vista;
     }
 
     public Stream<WaitlistEntry> stream() {
-        return entradas.stream();
+        return comoListaInmutable().stream();
     }
 
+    /**
+     * Restaura una entrada con el orden guardado. Si el email ya está (sin
+     * distinguir mayúsculas) se conserva la primera entrada.
+     */
     public void agregarDesdePersistencia(WaitlistEntry entry) {
         Objects.requireNonNull(entry, "entry requerido");
-        entradas.add(entry);
+        entradas.putIfAbsent(clave(entry.emailJugador()),
+                new Nodo(entry.emailJugador(), entry.fechaSolicitud(), entry.orden(), ++llegadas));
+        vista = null;
     }
 
-    private void reordenar() {
-        for (int i = 0; i < entradas.size(); i++) {
-            WaitlistEntry entry = entradas.get(i);
-            entradas.set(i, new WaitlistEntry(entry.emailJugador(), entry.fechaSolicitud(), i + 1));
-        }
+    private static String clave(String email) {
+        return email.toLowerCase(Locale.ROOT);
     }
 }
-
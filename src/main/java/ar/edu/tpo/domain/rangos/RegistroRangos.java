@@ -0,0 +1,47 @@
+package ar.edu.tpo.domain.rangos;
+
+import ar.edu.tpo.domain.Catalogo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rangos disponibles, creados una sola vez, con sus mínimos de MMR ordenados
+ * para ubicar el rango de un puntaje con búsqueda binaria.
+ */
+final class RegistroRangos {
+
+    static final Catalogo<StateRangos> CATALOGO = new Catalogo<>(List.of(
+            new Hierro(),
+            new Bronce(),
+            new Plata(),
+            new Oro(),
+            new Platino(),
+            new Diamante(),
+            new Ascendente(),
+            new Immortal(),
+            new Radiante()), StateRangos::getNombre);
+
+    private static final StateRangos[] ORDENADOS = CATALOGO.todos().stream()
+            .sorted((a, b) -> Integer.compare(a.getMinimo(), b.getMinimo()))
+            .toArray(StateRangos[]::new);
+    private static final int[] MINIMOS = Arrays.stream(ORDENADOS).mapToInt(StateRangos::getMinimo).toArray();
+
+    private RegistroRangos() {
+    }
+
+    /**
+     * Rango cuyo intervalo [mínimo, máximo] contiene los puntos, o null si ninguno.
+     */
+    static StateRangos paraPuntos(int puntos) {
+        int i = Arrays.binarySearch(MINIMOS, puntos);
+        if (i < 0) {
+            i = -i - 2; // último mínimo menor a los puntos
+        }
+        if (i < 0) {
+            return null;
+        }
+        StateRangos rango = ORDENADOS[i];
+        return puntos <= rango.getMaximo() ? rango : null;
+    }
+}
@@ -1,48 +1,38 @@
 package ar.edu.tpo.domain.rangos;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public interface StateRangos {
     String getNombre();
     int getMinimo();
     int getMaximo();
 
+    /**
+     * Lista inmutable y compartida de los rangos, de menor a mayor.
+     */
     static List<StateRangos> disponibles() {
-        List<StateRangos> rangos = new ArrayList<>();
-        rangos.add(new Hierro());
-        rangos.add(new Bronce());
-        rangos.add(new Plata());
-        rangos.add(new Oro());
-        rangos.add(new Platino());
-        rangos.add(new Diamante());
-        rangos.add(new Ascendente());
-        rangos.add(new Immortal());
-        rangos.add(new Radiante());
-        return rangos;
+        return RegistroRangos.CATALOGO.todos();
+    }
+
+    /**
+     * Rango que corresponde a un puntaje, o null si queda fuera de todos.
+     */
+    static StateRangos paraPuntos(int puntos) {
+        return RegistroRangos.paraPuntos(puntos);
     }
 
     static StateRangos asignarRangoSegunPuntos(int puntosJugador) {
-        for (StateRangos rango : disponibles()) {
-            if (puntosJugador >= rango.getMinimo() && puntosJugador <= rango.getMaximo()) {
-                System.out.println("Rango asignado automáticamente: " + rango.getNombre() +
-                        " (" + puntosJugador + " puntos)");
-                return rango;
-            }
+        StateRangos rango = paraPuntos(puntosJugador);
+        if (rango == null) {
+            return RegistroRangos.CATALOGO.primero();
         }
-        return new Hierro();
+        System.out.println("Rango asignado automáticamente: " + rango.getNombre() +
+                " (" + puntosJugador + " puntos)");
+        return rango;
     }
 
     static StateRangos fromNombre(String nombre) {
-        if (nombre == null) {
-            return null;
-        }
-        String buscado = nombre.trim().toLowerCase(Locale.ROOT);
-        return disponibles().stream()
-                .filter(r -> r.getNombre().toLowerCase(Locale.ROOT).equals(buscado))
-                .findFirst()
-                .orElse(null);
+        return RegistroRangos.CATALOGO.porNombre(nombre);
     }
 }
 
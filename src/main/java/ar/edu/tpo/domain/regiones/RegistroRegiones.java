@@ -0,0 +1,19 @@
+package ar.edu.tpo.domain.regiones;
+
+import ar.edu.tpo.domain.Catalogo;
+
+import java.util.List;
+
+/**
+ * Regiones disponibles, creadas una sola vez.
+ */
+final class RegistroRegiones {
+
+    static final Catalogo<StateRegion> CATALOGO = new Catalogo<>(List.of(
+            new America(),
+            new Europa(),
+            new Asia()), StateRegion::getNombre);
+
+    private RegistroRegiones() {
+    }
+}
@@ -1,20 +1,17 @@
 package ar.edu.tpo.domain.regiones;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Scanner;
 
 public interface StateRegion {
     String getNombre();
     int getPing();
 
+    /**
+     * Lista inmutable y compartida de las regiones disponibles.
+     */
     static List<StateRegion> disponibles() {
-        List<StateRegion> regiones = new ArrayList<>();
-        regiones.add(new America());
-        regiones.add(new Europa());
-        regiones.add(new Asia());
-        return regiones;
+        return RegistroRegiones.CATALOGO.todos();
     }
 
     @SuppressWarnings("resource")
@@ -48,13 +45,6 @@ public interface StateRegion {
     }
 
     static StateRegion fromNombre(String nombre) {
-        if (nombre == null) {
-            return null;
-        }
-        String buscado = nombre.trim().toLowerCase(Locale.ROOT);
-        return disponibles().stream()
-                .filter(r -> r.getNombre().toLowerCase(Locale.ROOT).equals(buscado))
-                .findFirst()
-                .orElse(null);
+        return RegistroRegiones.CATALOGO.porNombre(nombre);
     }
 }
@@ -0,0 +1,20 @@
+package ar.edu.tpo.domain.roles;
+
+import ar.edu.tpo.domain.Catalogo;
+
+import java.util.List;
+
+/**
+ * Roles disponibles, creados una sola vez.
+ */
+final class RegistroRoles {
+
+    static final Catalogo<StateRoles> CATALOGO = new Catalogo<>(List.of(
+            new Duelista(),
+            new Iniciador(),
+            new Controlador(),
+            new Centinela()), StateRoles::getNombre);
+
+    private RegistroRoles() {
+    }
+}
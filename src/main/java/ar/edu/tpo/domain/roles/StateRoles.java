@@ -1,20 +1,16 @@
 package ar.edu.tpo.domain.roles;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Scanner;
 
 public interface StateRoles {
     String getNombre();
 
+    /**
+     * Lista inmutable y compartida de los roles disponibles.
+     */
     static List<StateRoles> disponibles() {
-        List<StateRoles> roles = new ArrayList<>();
-        roles.add(new Duelista());
-        roles.add(new Iniciador());
-        roles.add(new Controlador());
-        roles.add(new Centinela());
-        return roles;
+        return RegistroRoles.CATALOGO.todos();
     }
 
     @SuppressWarnings("resource")
@@ -48,14 +44,7 @@ public interface StateRoles {
     }
 
     static StateRoles fromNombre(String nombre) {
-        if (nombre == null) {
-            return null;
-        }
-        String buscado = nombre.trim().toLowerCase(Locale.ROOT);
-        return disponibles().stream()
-                .filter(r -> r.getNombre().toLowerCase(Locale.ROOT).equals(buscado))
-                .findFirst()
-                .orElse(null);
+        return RegistroRoles.CATALOGO.porNombre(nombre);
     }
 }
 
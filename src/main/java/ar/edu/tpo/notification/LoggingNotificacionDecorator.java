@@ -1,5 +1,6 @@
 package ar.edu.tpo.notification;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 /**
@@ -7,16 +8,23 @@ import java.time.LocalDateTime;
  */
 public class LoggingNotificacionDecorator extends NotificacionStrategyDecorator {
 
+    private final Clock clock;
+
     public LoggingNotificacionDecorator(NotificacionStrategy delegate) {
+        this(delegate, Clock.systemDefaultZone());
+    }
+
+    public LoggingNotificacionDecorator(NotificacionStrategy delegate, Clock clock) {
         super(delegate);
+        this.clock = clock;
     }
 
     @Override
     public void enviar(Notificacion notificacion) {
-        System.out.println("[notificacion][log] (" + LocalDateTime.now() + ") Enviando " +
+        System.out.println("[notificacion][log] (" + LocalDateTime.now(clock) + ") Enviando " +
                 notificacion.getTipo() + " a " + notificacion.getDestinatario());
         delegate.enviar(notificacion);
-        System.out.println("[notificacion][log] (" + LocalDateTime.now() + ") Notificación estado=" +
+        System.out.println("[notificacion][log] (" + LocalDateTime.now(clock) + ") Notificación estado=" +
                 notificacion.getEstado());
     }
 }
@@ -1,10 +1,12 @@
 package ar.edu.tpo.notification;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class Notificacion {
     private final UUID id;
+    private final Clock clock;
     private final LocalDateTime fechaCreacion;
     private LocalDateTime fechaEnvio;
     private final String tipo;
@@ -13,9 +15,13 @@ public class Notificacion {
     private final String destinatario;
     private String estado;
 
-    public Notificacion(String tipo, String canal, String payload, String destinatario) {
+    /**
+     * @param clock reloj del que salen las fechas de creación y de envío
+     */
+    public Notificacion(String tipo, String canal, String payload, String destinatario, Clock clock) {
         this.id = UUID.randomUUID();
-        this.fechaCreacion = LocalDateTime.now();
+        this.clock = clock;
+        this.fechaCreacion = LocalDateTime.now(clock);
         this.tipo = tipo;
         this.canal = canal;
         this.payload = payload;
@@ -57,12 +63,12 @@ public class Notificacion {
 
     public void marcarEnviado() {
         this.estado = "ENVIADO";
-        this.fechaEnvio = LocalDateTime.now();
+        this.fechaEnvio = LocalDateTime.now(clock);
     }
 
     public void marcarError() {
         this.estado = "ERROR";
-        this.fechaEnvio = LocalDateTime.now();
+        this.fechaEnvio = LocalDateTime.now(clock);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package ar.edu.tpo.notification;
 
+import ar.edu.tpo.domain.Equipo;
 import ar.edu.tpo.domain.SancionActiva;
 import ar.edu.tpo.domain.SancionHistorica;
 import ar.edu.tpo.domain.Scrim;
@@ -7,18 +8,29 @@ import ar.edu.tpo.domain.WaitlistEntry;
 import ar.edu.tpo.domain.Usuario;
 import ar.edu.tpo.service.ArgentinaTimeZone;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class NotificationService {
     private static final DateTimeFormatter FECHA_ARG = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     private final Notificador notificador;
+    private final Clock clock;
 
     public NotificationService(Notificador notificador) {
+        this(notificador, Clock.systemDefaultZone());
+    }
+
+    public NotificationService(Notificador notificador, Clock clock) {
         this.notificador = notificador;
+        this.clock = clock;
     }
 
     public void notificarRegistro(Usuario usuario) {
@@ -130,6 +142,29 @@ public class NotificationService {
         enviarATodos(scrim, "Actualización de scrim " + scrim.getJuego(), mensaje);
     }
 
+    /**
+     * Avisa de varios cambios de estado juntos: cada destinatario recibe un
+     * único mensaje con todos los scrims suyos que cambiaron.
+     */
+    public void notificarScrimsActualizados(List<Scrim> scrims) {
+        Map<String, List<Scrim>> porDestinatario = new LinkedHashMap<>();
+        for (Scrim scrim : scrims) {
+            destinatarios(scrim).forEach(email -> porDestinatario.computeIfAbsent(email, k -> new ArrayList<>()).add(scrim));
+        }
+        porDestinatario.forEach((email, propios) -> {
+            StringBuilder mensaje = new StringBuilder("Actualización de tus scrims:\n");
+            for (Scrim scrim : propios) {
+                mensaje.append("- %s (%s): %s. Inicio %s, fin %s\n".formatted(
+                        scrim.getId(),
+                        scrim.getJuego(),
+                        scrim.getEstado().getNombre(),
+                        formatear(scrim.getInicio()),
+                        formatear(scrim.getFin())));
+            }
+            enviar(email, "Actualización de " + propios.size() + " scrims", mensaje.toString());
+        });
+    }
+
     public void notificarScrimProgramado(Scrim scrim) {
         String mensaje = """
                 El scrim %s (%s) fue programado.
@@ -174,15 +209,23 @@ public class NotificationService {
     }
 
     private void enviarATodos(Scrim scrim, String tipo, String mensaje) {
+        destinatarios(scrim).forEach(email -> enviar(email, tipo, mensaje));
+    }
+
+    private static Set<String> destinatarios(Scrim scrim) {
         Set<String> destinatarios = new LinkedHashSet<>();
         destinatarios.add(scrim.getEmailCreador());
-        destinatarios.addAll(scrim.getEquipo1().getJugadores());
-        destinatarios.addAll(scrim.getEquipo2().getJugadores());
+        agregarEquipo(destinatarios, scrim.getEquipo1());
+        agregarEquipo(destinatarios, scrim.getEquipo2());
         scrim.getListaEspera().forEach(entry -> destinatarios.add(entry.emailJugador()));
+        destinatarios.removeIf(email -> email == null || email.isBlank());
+        return destinatarios;
+    }
 
-        destinatarios.stream()
-                .filter(email -> email != null && !email.isBlank())
-                .forEach(email -> enviar(email, tipo, mensaje));
+    private static void agregarEquipo(Set<String> destinatarios, Equipo equipo) {
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            destinatarios.add(equipo.getJugador(i));
+        }
     }
 
     private void enviar(String destinatario, String tipo, String mensaje) {
@@ -192,7 +235,7 @@ public class NotificationService {
         if (notificador == null) {
             return;
         }
-        Notificacion notificacion = new Notificacion(tipo, notificador.getTipo(), mensaje, destinatario);
+        Notificacion notificacion = new Notificacion(tipo, notificador.getTipo(), mensaje, destinatario, clock);
         notificador.enviar(notificacion);
     }
 
@@ -204,8 +247,8 @@ public class NotificationService {
         return usuario.getEmail();
     }
 
-    private static String ahoraArgentina() {
-        return ArgentinaTimeZone.ahora().format(FECHA_ARG);
+    private String ahoraArgentina() {
+        return ArgentinaTimeZone.ahora(clock).format(FECHA_ARG);
     }
 
     private static String formatear(LocalDateTime fecha) {
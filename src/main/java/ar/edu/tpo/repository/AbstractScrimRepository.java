@@ -0,0 +1,420 @@
+package ar.edu.tpo.repository;
+
+import ar.edu.tpo.domain.DiccionarioJugadores;
+import ar.edu.tpo.domain.EstadoScrim;
+import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.domain.estado.BuscandoJugadoresState;
+import ar.edu.tpo.domain.estado.CanceladoState;
+import ar.edu.tpo.domain.estado.FinalizadoState;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Base de los repositorios de scrims que mantienen todo en memoria: caché por
+ * id, secuencia de ids numéricos, índices secundarios (incluido el de
+ * participantes por email) y escritura diferida opcional. Cada subclase decide
+ * cómo llevar a disco un scrim modificado; los adaptadores con los que lee
+ * reciben el {@link #diccionario} del repositorio.
+ *
+ * Las lecturas por id y los listados no toman locks. Las escrituras (índices y
+ * disco) se serializan con el monitor del repositorio y comparan la versión
+ * del scrim con la guardada, y {@link #conScrim} agrega un lock por franja de
+ * ids para que dos operaciones sobre el mismo scrim no se pisen mientras las
+ * de scrims distintos avanzan en paralelo.
+ *
+ * Lo que se publica en la caché es una copia del scrim recibido en guardar,
+ * sellada ({@link Scrim#sellar}): nadie la puede volver a modificar, y quien
+ * quiera cambiar un scrim trabaja sobre otra copia ({@link #conScrim}). Por
+ * eso todas las lecturas devuelven las instancias publicadas sin copiarlas,
+ * los lectores pueden recorrerlas sin locks, y {@link #instantanea()} comparte
+ * la misma lista inmutable entre todos los lectores hasta el próximo guardar.
+ *
+ * Los scrims finalizados o cancelados pueden pasarse a un archivo comprimido
+ * ({@link #archivarTerminados}): salen de la caché, los índices y los
+ * listados, y {@link #buscarPorId} los sigue encontrando desde el archivo.
+ * Guardar un scrim archivado controla la versión contra la del archivo y lo
+ * devuelve a la caché; desde ahí el archivo ya no lo encuentra.
+ */
+public abstract class AbstractScrimRepository implements ScrimRepository, AutoCloseable {
+
+    private static final int FRANJAS = 64;
+    private static final int CAPACIDAD_LRU_ARCHIVO = 256;
+
+    // Ordenada por id para que listados y snapshots salgan en orden de creación
+    protected final ConcurrentNavigableMap<String, Scrim> cache =
+            new ConcurrentSkipListMap<>(Ids::comparar);
+    protected final Set<String> sucios = new LinkedHashSet<>();
+    // Emails compartidos por todos los scrims que este repositorio lee de disco
+    protected final DiccionarioJugadores diccionario = new DiccionarioJugadores();
+    private final IndiceScrims indice = new IndiceScrims();
+    private final IndiceParticipantes participantes = new IndiceParticipantes();
+    private final String nombre;
+    protected final FasesArranque arranque;
+    private EscrituraDiferida escrituraDiferida;
+    private ArchivoScrims archivo;
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+    private final GeneradorIds generadorIds;
+    // Guardar confirmados; solo se escribe con el monitor tomado
+    private volatile long commits;
+    private volatile Instantanea<Scrim> instantanea = new Instantanea<>(-1, List.of());
+
+    protected AbstractScrimRepository(String nombre, GeneradorIds generadorIds) {
+        this.nombre = nombre;
+        this.generadorIds = generadorIds;
+        this.arranque = new FasesArranque(nombre);
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void guardar(Scrim scrim) {
+        if (scrim.getId() == null || scrim.getId().isBlank()) {
+            scrim.asignarId(generadorIds.siguiente());
+        } else {
+            generadorIds.reservar(scrim.getId());
+        }
+        Scrim publicado = scrim.copiarConVersionSiguiente();
+        synchronized (this) {
+            registrar(publicado);
+        }
+    }
+
+    /**
+     * Si alguna versión no coincide no se guarda ninguno. Sin escritura
+     * diferida el lote entero se persiste con un solo volcado.
+     */
+    @Override
+    public void guardarTodos(Collection<Scrim> scrims) {
+        if (scrims.isEmpty()) {
+            return;
+        }
+        List<Scrim> publicados = new ArrayList<>(scrims.size());
+        for (Scrim scrim : scrims) {
+            if (scrim.getId() == null || scrim.getId().isBlank()) {
+                scrim.asignarId(generadorIds.siguiente());
+            } else {
+                generadorIds.reservar(scrim.getId());
+            }
+            publicados.add(scrim.copiarConVersionSiguiente());
+        }
+        synchronized (this) {
+            publicados.forEach(this::verificarVersion);
+            for (Scrim publicado : publicados) {
+                publicar(publicado);
+                sucios.add(publicado.getId());
+            }
+            if (escrituraDiferida != null) {
+                escrituraDiferida.marcarCambio();
+            } else {
+                volcarSucios();
+            }
+        }
+    }
+
+    // Con el monitor tomado: control de versión, caché, índices y persistencia (o marca de sucio)
+    private void registrar(Scrim scrim) {
+        verificarVersion(scrim);
+        publicar(scrim);
+        if (escrituraDiferida != null) {
+            sucios.add(scrim.getId());
+            escrituraDiferida.marcarCambio();
+            return;
+        }
+        persistirCambio(scrim);
+    }
+
+    // El publicado lleva la versión siguiente a la que se leyó
+    private void verificarVersion(Scrim publicado) {
+        Scrim actual = cache.get(publicado.getId());
+        if (actual == null && archivo != null) {
+            actual = archivo.buscar(publicado.getId());
+        }
+        long leida = publicado.getVersion() - 1;
+        if (actual != null && actual.getVersion() != leida) {
+            throw new ConflictoDeVersionException(publicado.getId(), leida, actual.getVersion());
+        }
+    }
+
+    private void publicar(Scrim scrim) {
+        scrim.sellar();
+        commits++;
+        if (cache.put(scrim.getId(), scrim) == null && archivo != null) {
+            archivo.quitar(List.of(scrim.getId()));
+        }
+        indice.actualizar(scrim);
+        participantes.actualizar(scrim);
+    }
+
+    /**
+     * Busca primero en la caché y después, si hay archivo, entre los archivados.
+     */
+    @Override
+    public Scrim buscarPorId(String id) {
+        Scrim s = cache.get(id);
+        if (s == null && archivo != null) {
+            s = archivo.buscar(id);
+        }
+        if (s == null) throw new IllegalArgumentException("Scrim no encontrado");
+        return s;
+    }
+
+    @Override
+    public List<Scrim> listar() {
+        return instantanea().elementos();
+    }
+
+    /**
+     * Vista inmutable y consistente de todos los scrims. Se arma a lo sumo una
+     * vez por cada guardar, la primera vez que alguien la pide después de él.
+     */
+    public Instantanea<Scrim> instantanea() {
+        Instantanea<Scrim> actual = instantanea;
+        if (actual.version() == commits) {
+            return actual;
+        }
+        synchronized (this) {
+            if (instantanea.version() != commits) {
+                instantanea = new Instantanea<>(commits, new ArrayList<>(cache.values()));
+            }
+            return instantanea;
+        }
+    }
+
+    /**
+     * Recorre la caché desde el cursor sin copiarla: solo se materializa la página.
+     */
+    @Override
+    public Pagina<Scrim> listar(Predicate<Scrim> filtro, String desdeId, int limite) {
+        Collection<Scrim> desde = desdeId == null ? cache.values() : cache.tailMap(desdeId, false).values();
+        return Pagina.armar(desde, Scrim::getId, filtro, limite);
+    }
+
+    @Override
+    public <T> T conScrim(String id, Function<Scrim, T> operacion, Predicate<? super T> modifico) {
+        ReentrantLock franja = franjas[Math.floorMod(id.hashCode(), FRANJAS)];
+        franja.lock();
+        try {
+            return ScrimRepository.super.conScrim(id, operacion, modifico);
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    @Override
+    public synchronized List<Scrim> buscarPorEstado(EstadoScrim estado) {
+        String nombreEstado = estado.getNombre();
+        return resolver(indice.porEstado(nombreEstado), s -> s.getEstado().getNombre().equals(nombreEstado));
+    }
+
+    @Override
+    public synchronized List<Scrim> buscarPorRegion(String region) {
+        return resolver(indice.porRegion(region), s -> s.getRegion().equalsIgnoreCase(region.trim()));
+    }
+
+    @Override
+    public synchronized List<Scrim> buscarPorFormato(String formato) {
+        return resolver(indice.porFormato(formato), s -> s.getFormato().equalsIgnoreCase(formato.trim()));
+    }
+
+    @Override
+    public synchronized List<Scrim> buscarPorCreador(String email) {
+        return resolver(indice.porCreador(email), s -> s.getEmailCreador().equalsIgnoreCase(email.trim()));
+    }
+
+    @Override
+    public synchronized List<Scrim> buscarPorParticipante(String email) {
+        return resolver(participantes.scrimsDe(email), s -> s.participa(email));
+    }
+
+    /**
+     * Recorre el menor de los índices de estado, región y banda de MMR.
+     */
+    @Override
+    public synchronized List<Scrim> buscarAbiertasEn(String region, int mmr) {
+        Set<String> candidatos = indice.porEstado(BuscandoJugadoresState.INSTANCIA.getNombre());
+        Set<String> porRegion = indice.porRegion(region);
+        if (porRegion.size() < candidatos.size()) {
+            candidatos = porRegion;
+        }
+        Set<String> porMmr = indice.porMmr(mmr);
+        if (porMmr.size() < candidatos.size()) {
+            candidatos = porMmr;
+        }
+        return resolver(candidatos, s -> s.estaAbiertaPara(region, mmr));
+    }
+
+    /**
+     * Pasa al archivo los scrims finalizados o cancelados cuya fecha de fin (o
+     * de inicio, si no tiene fin) es anterior a {@code limite}; los que nunca
+     * tuvieron fechas se archivan siempre. Primero se escriben en el archivo y
+     * después se sacan de la caché y del almacenamiento principal.
+     * @return cantidad de scrims archivados
+     */
+    public synchronized int archivarTerminados(LocalDateTime limite) {
+        if (archivo == null) {
+            throw new IllegalStateException("El repositorio " + nombre + " no tiene archivo de scrims");
+        }
+        List<Scrim> terminados = new ArrayList<>();
+        Set<String> candidatos = new TreeSet<>(Ids::comparar);
+        candidatos.addAll(indice.porEstado(FinalizadoState.INSTANCIA.getNombre()));
+        candidatos.addAll(indice.porEstado(CanceladoState.INSTANCIA.getNombre()));
+        for (String id : candidatos) {
+            Scrim scrim = cache.get(id);
+            if (scrim == null || !(scrim.getEstado() instanceof FinalizadoState || scrim.getEstado() instanceof CanceladoState)) {
+                continue;
+            }
+            LocalDateTime referencia = scrim.getFin() != null ? scrim.getFin() : scrim.getInicio();
+            if (referencia == null || referencia.isBefore(limite)) {
+                terminados.add(scrim);
+            }
+        }
+        if (terminados.isEmpty()) {
+            return 0;
+        }
+        archivo.agregar(terminados);
+        List<String> ids = new ArrayList<>(terminados.size());
+        for (Scrim scrim : terminados) {
+            ids.add(scrim.getId());
+            cache.remove(scrim.getId());
+            indice.eliminar(scrim.getId());
+            participantes.eliminar(scrim.getId());
+        }
+        commits++;
+        persistirArchivados(ids);
+        return terminados.size();
+    }
+
+    /**
+     * Cantidad de scrims en el archivo (0 si el repositorio no tiene archivo).
+     */
+    public int getArchivados() {
+        return archivo == null ? 0 : archivo.cantidad();
+    }
+
+    /**
+     * Activa la escritura diferida: los guardar solo marcan el scrim como sucio
+     * y un hilo de fondo los persiste juntos cada {@code intervalo} o al juntar
+     * {@code tamanioLote} cambios. Un scrim que cambió varias veces dentro del
+     * lote se persiste una sola vez.
+     */
+    public synchronized void habilitarEscrituraDiferida(Duration intervalo, int tamanioLote) {
+        if (escrituraDiferida != null) {
+            throw new IllegalStateException("La escritura diferida ya está habilitada");
+        }
+        escrituraDiferida = new EscrituraDiferida(nombre, intervalo, tamanioLote, this::volcarPendientes);
+    }
+
+    public synchronized EscrituraDiferida getEscrituraDiferida() {
+        return escrituraDiferida;
+    }
+
+    /**
+     * Persiste de inmediato los cambios que estén pendientes por la escritura diferida.
+     */
+    public void flush() {
+        EscrituraDiferida diferida = getEscrituraDiferida();
+        if (diferida != null) {
+            diferida.flush();
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente y libera el hilo de escritura y los recursos de la subclase.
+     */
+    @Override
+    public void close() {
+        EscrituraDiferida diferida = getEscrituraDiferida();
+        if (diferida != null) {
+            diferida.close();
+        }
+        synchronized (this) {
+            cerrarAlmacenamiento();
+        }
+        generadorIds.close();
+    }
+
+    /**
+     * Persiste un scrim recién guardado cuando no hay escritura diferida.
+     * Se invoca con el lock del repositorio tomado.
+     */
+    protected abstract void persistirCambio(Scrim scrim);
+
+    /**
+     * Persiste los scrims marcados en {@link #sucios} y los quita del conjunto.
+     * Se invoca con el lock del repositorio tomado y con al menos un sucio.
+     */
+    protected abstract void volcarSucios();
+
+    /**
+     * Quita del almacenamiento principal los scrims que acaban de archivarse
+     * (ya no están en la caché). Se invoca con el lock del repositorio tomado.
+     */
+    protected abstract void persistirArchivados(Collection<String> ids);
+
+    protected void cerrarAlmacenamiento() {
+    }
+
+    /**
+     * Abre (o crea al primer uso) el archivo de scrims terminados. Las
+     * subclases lo invocan al cargar, antes de {@link #terminarCarga}.
+     */
+    protected void abrirArchivo(File ruta) {
+        archivo = new ArchivoScrims(ruta, CAPACIDAD_LRU_ARCHIVO, diccionario);
+        arranque.marcar("archivo");
+    }
+
+    /**
+     * Tiempos de la carga inicial, por fase.
+     */
+    public FasesArranque getArranque() {
+        return arranque;
+    }
+
+    /**
+     * Se invoca al terminar de cargar la caché: sella los scrims y los indexa.
+     * Solo si el generador de ids no tiene estado previo (primer arranque con
+     * él) se le informan todos los ids conocidos, incluidos los archivados.
+     */
+    protected void terminarCarga(Collection<String> ids) {
+        cache.values().forEach(Scrim::sellar);
+        // Un scrim que volvió a la caché (o cuyo archivado se cortó a mitad) deja obsoleta su entrada archivada
+        if (archivo != null) {
+            archivo.quitar(cache.keySet());
+        }
+        indice.reconstruir(cache.values());
+        participantes.reconstruir(cache.values());
+        if (generadorIds.sinHistoria()) {
+            ids.forEach(generadorIds::reservar);
+            if (archivo != null) {
+                archivo.ids().forEach(generadorIds::reservar);
+            }
+        }
+        arranque.marcar("índices");
+    }
+
+    private List<Scrim> resolver(Set<String> ids, Predicate<Scrim> filtro) {
+        List<Scrim> resultado = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Scrim scrim = cache.get(id);
+            if (scrim != null && filtro.test(scrim)) {
+                resultado.add(scrim);
+            }
+        }
+        return resultado;
+    }
+
+    private synchronized void volcarPendientes() {
+        if (!sucios.isEmpty()) {
+            volcarSucios();
+        }
+    }
+}
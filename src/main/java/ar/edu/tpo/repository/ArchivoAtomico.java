@@ -0,0 +1,154 @@
+package ar.edu.tpo.repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Escritura de snapshots a prueba de cortes: el contenido se escribe en
+ * {@code <archivo>.tmp}, se fuerza a disco y se renombra de forma atómica
+ * sobre el archivo vivo. Junto a él queda {@code <archivo>.crc} con el CRC32
+ * y la longitud, que la carga verifica antes de interpretar el contenido.
+ *
+ * El checksum se publica antes que los datos; si el proceso se corta entre
+ * los dos renombres, {@link #validar(File)} completa el reemplazo con el
+ * temporal que coincide con el checksum.
+ */
+public final class ArchivoAtomico {
+
+    private static final String SUFIJO_CHECKSUM = ".crc";
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+
+    @FunctionalInterface
+    public interface Contenido {
+        void escribir(Writer w) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ContenidoBinario {
+        void escribir(OutputStream out) throws IOException;
+    }
+
+    private ArchivoAtomico() {
+    }
+
+    public static void escribir(File destino, Contenido contenido) throws IOException {
+        escribirBinario(destino, out -> {
+            Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            contenido.escribir(w);
+            w.flush();
+        });
+    }
+
+    public static void escribirBinario(File destino, ContenidoBinario contenido) throws IOException {
+        File directorio = destino.getAbsoluteFile().getParentFile();
+        if (directorio != null) {
+            directorio.mkdirs();
+        }
+        File temporal = temporalDe(destino);
+        CRC32 crc = new CRC32();
+        long longitud;
+        try (FileOutputStream fos = new FileOutputStream(temporal);
+             OutputStream out = new CheckedOutputStream(new BufferedOutputStream(fos, 64 * 1024), crc)) {
+            contenido.escribir(out);
+            out.flush();
+            fos.getChannel().force(true);
+            longitud = fos.getChannel().size();
+        }
+
+        File checksum = checksumDe(destino);
+        File checksumTemporal = temporalDe(checksum);
+        try (FileOutputStream fos = new FileOutputStream(checksumTemporal)) {
+            fos.write(firma(crc.getValue(), longitud).getBytes(StandardCharsets.UTF_8));
+            fos.getChannel().force(true);
+        }
+        mover(checksumTemporal, checksum);
+        mover(temporal, destino);
+        sincronizarDirectorio(directorio);
+    }
+
+    /**
+     * Verificación rápida, solo de checksum, antes de cargar un archivo.
+     * Sin {@code .crc} no se valida (archivos anteriores a este formato).
+     * @throws IllegalStateException si el contenido no coincide con el checksum
+     */
+    public static void validar(File archivo) {
+        File checksum = checksumDe(archivo);
+        if (!checksum.exists()) {
+            return;
+        }
+        try {
+            String esperada = Files.readString(checksum.toPath(), StandardCharsets.UTF_8).trim();
+            if (archivo.exists() && esperada.equals(calcularFirma(archivo))) {
+                return;
+            }
+            File temporal = temporalDe(archivo);
+            if (temporal.exists() && esperada.equals(calcularFirma(temporal))) {
+                mover(temporal, archivo);
+                System.out.println("[persistencia] Se completó el reemplazo interrumpido de " + archivo.getPath());
+                return;
+            }
+            if (!archivo.exists()) {
+                return;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al validar " + archivo.getPath() + ": " + e.getMessage(), e);
+        }
+        throw new IllegalStateException("El archivo " + archivo.getPath() +
+                " no coincide con su checksum " + checksum.getName() + " (escritura incompleta o archivo alterado)");
+    }
+
+    private static String calcularFirma(File archivo) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (canal.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+            return firma(crc.getValue(), canal.size());
+        }
+    }
+
+    private static String firma(long crc, long longitud) {
+        return "%08x %d".formatted(crc, longitud);
+    }
+
+    private static void mover(File origen, File destino) throws IOException {
+        try {
+            Files.move(origen.toPath(), destino.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Fuerza a disco la entrada de directorio de los renombres. No todos los
+     * sistemas permiten abrir un directorio; ahí se confía en el renombre.
+     */
+    private static void sincronizarDirectorio(File directorio) {
+        if (directorio == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(directorio.toPath(), StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+        }
+    }
+
+    private static File checksumDe(File archivo) {
+        return new File(archivo.getPath() + SUFIJO_CHECKSUM);
+    }
+
+    private static File temporalDe(File archivo) {
+        return new File(archivo.getPath() + SUFIJO_TEMPORAL);
+    }
+}
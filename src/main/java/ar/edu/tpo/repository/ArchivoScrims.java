@@ -0,0 +1,240 @@
+package ar.edu.tpo.repository;
+
+import ar.edu.tpo.domain.DiccionarioJugadores;
+import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.repository.json.ScrimJsonAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivo append-only de scrims terminados que ya no se mantienen en memoria.
+ * Se escribe por bloques comprimidos de hasta {@link #SCRIMS_POR_BLOQUE}
+ * scrims, cada uno con los ids en claro delante:
+ *
+ * <pre>
+ * bloque: [MAGIA int][cantidad int]([id UTF])...[longitud int][JSON por línea, gzip]
+ * </pre>
+ *
+ * Al abrir solo se leen las cabeceras para saber en qué bloque está cada id;
+ * un scrim se descomprime recién cuando alguien lo pide y queda en un LRU
+ * acotado. Si el mismo id aparece en varios bloques gana el último. Un bloque
+ * incompleto al final (escritura interrumpida) se descarta y se pisa con el
+ * siguiente. Un scrim que vuelve a la caché se quita de la búsqueda
+ * ({@link #quitar}); su entrada en el archivo queda obsoleta.
+ */
+class ArchivoScrims {
+
+    static final int SCRIMS_POR_BLOQUE = 64;
+    private static final int MAGIA = 0x45415243; // "EARC"
+
+    private record Ubicacion(long offset, int longitud) {
+    }
+
+    private final File archivo;
+    private final Gson gson;
+    private final Map<String, Ubicacion> ubicaciones = new HashMap<>();
+    private final Map<String, Scrim> recientes;
+    // Fin del último bloque completo: ahí se escribe el próximo
+    private long fin;
+
+    ArchivoScrims(File archivo, int capacidadLru, DiccionarioJugadores diccionario) {
+        this.archivo = archivo;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(Scrim.class, new ScrimJsonAdapter(diccionario))
+                .create();
+        this.recientes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Scrim> eldest) {
+                return size() > capacidadLru;
+            }
+        };
+        leerCabeceras();
+    }
+
+    synchronized boolean contiene(String id) {
+        return ubicaciones.containsKey(id);
+    }
+
+    synchronized Set<String> ids() {
+        return new HashSet<>(ubicaciones.keySet());
+    }
+
+    synchronized int cantidad() {
+        return ubicaciones.size();
+    }
+
+    /**
+     * Devuelve el scrim archivado o null si no está. Las lecturas repetidas se
+     * sirven desde el LRU sin volver al disco.
+     */
+    synchronized Scrim buscar(String id) {
+        Scrim scrim = recientes.get(id);
+        if (scrim != null) {
+            return scrim;
+        }
+        Ubicacion ubicacion = ubicaciones.get(id);
+        if (ubicacion == null) {
+            return null;
+        }
+        scrim = leerDeBloque(ubicacion, id);
+        scrim.sellar();
+        recientes.put(id, scrim);
+        return scrim;
+    }
+
+    /**
+     * Deja de encontrar estos ids: sus scrims están otra vez en la caché.
+     */
+    synchronized void quitar(Collection<String> ids) {
+        for (String id : ids) {
+            ubicaciones.remove(id);
+            recientes.remove(id);
+        }
+    }
+
+    /**
+     * Agrega los scrims al final del archivo y fuerza la escritura a disco antes
+     * de volver, para que quien los saque de la caché no los pierda.
+     */
+    synchronized void agregar(List<Scrim> scrims) {
+        if (scrims.isEmpty()) {
+            return;
+        }
+        File directorio = archivo.getAbsoluteFile().getParentFile();
+        if (directorio != null) {
+            directorio.mkdirs();
+        }
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.truncate(fin);
+            long posicion = fin;
+            Map<String, Ubicacion> nuevas = new HashMap<>();
+            for (int desde = 0; desde < scrims.size(); desde += SCRIMS_POR_BLOQUE) {
+                List<Scrim> bloque = scrims.subList(desde, Math.min(scrims.size(), desde + SCRIMS_POR_BLOQUE));
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(buffer);
+                out.writeInt(MAGIA);
+                out.writeInt(bloque.size());
+                for (Scrim scrim : bloque) {
+                    out.writeUTF(scrim.getId());
+                }
+                byte[] datos = comprimir(bloque);
+                out.writeInt(datos.length);
+                Ubicacion ubicacion = new Ubicacion(posicion + out.size(), datos.length);
+                out.write(datos);
+                out.flush();
+                canal.write(ByteBuffer.wrap(buffer.toByteArray()), posicion);
+                posicion += buffer.size();
+                for (Scrim scrim : bloque) {
+                    nuevas.put(scrim.getId(), ubicacion);
+                }
+            }
+            canal.force(true);
+            fin = posicion;
+            ubicaciones.putAll(nuevas);
+            for (Scrim scrim : scrims) {
+                recientes.remove(scrim.getId());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir archivo de scrims: " + e.getMessage(), e);
+        }
+    }
+
+    String getRuta() {
+        return archivo.getPath();
+    }
+
+    private void leerCabeceras() {
+        if (!archivo.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo)))) {
+            long tamanio = archivo.length();
+            long posicion = 0;
+            while (posicion < tamanio) {
+                List<String> ids = new ArrayList<>();
+                long inicioDatos;
+                int longitud;
+                try {
+                    if (in.readInt() != MAGIA) {
+                        break;
+                    }
+                    int cantidad = in.readInt();
+                    long leidos = 8;
+                    for (int i = 0; i < cantidad; i++) {
+                        String id = in.readUTF();
+                        ids.add(id);
+                        leidos += 2 + id.getBytes(StandardCharsets.UTF_8).length;
+                    }
+                    longitud = in.readInt();
+                    inicioDatos = posicion + leidos + 4;
+                    if (inicioDatos + longitud > tamanio) {
+                        break;
+                    }
+                    in.skipNBytes(longitud);
+                } catch (EOFException e) {
+                    break;
+                }
+                Ubicacion ubicacion = new Ubicacion(inicioDatos, longitud);
+                for (String id : ids) {
+                    ubicaciones.put(id, ubicacion);
+                }
+                posicion = inicioDatos + longitud;
+            }
+            fin = posicion;
+            if (fin < tamanio) {
+                System.err.println("[archivo] Se descarta un bloque incompleto al final de " + archivo.getPath());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer archivo de scrims: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] comprimir(List<Scrim> scrims) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer w = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (Scrim scrim : scrims) {
+                w.write(gson.toJson(scrim, Scrim.class));
+                w.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private Scrim leerDeBloque(Ubicacion ubicacion, String id) {
+        byte[] datos = new byte[ubicacion.longitud()];
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            raf.seek(ubicacion.offset());
+            raf.readFully(datos);
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(datos)), StandardCharsets.UTF_8))) {
+                Scrim encontrado = null;
+                String linea;
+                // Un bloque puede repetir el id; gana la última línea
+                while ((linea = r.readLine()) != null) {
+                    if (linea.contains(id)) {
+                        Scrim scrim = gson.fromJson(linea, Scrim.class);
+                        if (id.equals(scrim.getId())) {
+                            encontrado = scrim;
+                        }
+                    }
+                }
+                if (encontrado == null) {
+                    throw new IllegalStateException("el bloque no contiene el scrim " + id);
+                }
+                return encontrado;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Error al leer scrim archivado " + id + ": " + e.getMessage(), e);
+        }
+    }
+}
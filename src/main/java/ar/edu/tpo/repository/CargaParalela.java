@@ -0,0 +1,142 @@
+package ar.edu.tpo.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Decodifica en paralelo un archivo JSON cuya raíz es un objeto de la forma
+ * {@code {"clave": {...}, "clave": {...}}}, como scrims.json y usuarios.json.
+ *
+ * Una pasada secuencial y barata ubica dónde empieza y termina cada valor
+ * (solo sigue llaves, corchetes y strings); después los valores se decodifican
+ * por bloques en el pool fork-join común, conservando el orden del archivo.
+ */
+final class CargaParalela {
+
+    // Por debajo de esta cantidad de entradas no conviene repartir el trabajo
+    static final int MINIMO_PARALELO = 1024;
+
+    private CargaParalela() {
+    }
+
+    static <T> List<T> leerObjetoJson(File archivo, Function<String, T> decodificar, FasesArranque fases) throws IOException {
+        String texto = Files.readString(archivo.toPath(), StandardCharsets.UTF_8);
+        fases.marcar("lectura");
+        List<int[]> valores = ubicarValores(texto);
+        List<T> resultado = decodificar(valores.size(), i -> {
+            int[] rango = valores.get(i);
+            return decodificar.apply(texto.substring(rango[0], rango[1]));
+        });
+        fases.marcar("decodificación");
+        return resultado;
+    }
+
+    /**
+     * Aplica {@code decodificarUno} a los índices {@code 0..cantidad-1} y
+     * devuelve los resultados en ese orden, en paralelo si son suficientes.
+     */
+    static <T> List<T> decodificar(int cantidad, IntFunction<T> decodificarUno) {
+        IntStream indices = IntStream.range(0, cantidad);
+        if (cantidad >= MINIMO_PARALELO) {
+            indices = indices.parallel();
+        }
+        return indices.mapToObj(decodificarUno).toList();
+    }
+
+    /**
+     * Inicio y fin (exclusivo) del valor de cada miembro del objeto raíz.
+     * @throws IllegalStateException si el texto no tiene esa forma
+     */
+    static List<int[]> ubicarValores(String texto) {
+        List<int[]> valores = new ArrayList<>();
+        int i = saltarEspacios(texto, 0);
+        if (i == texto.length() || texto.startsWith("null", i)) {
+            return valores;
+        }
+        esperar(texto, i, '{');
+        i = saltarEspacios(texto, i + 1);
+        if (i < texto.length() && texto.charAt(i) == '}') {
+            return valores;
+        }
+        while (true) {
+            esperar(texto, i, '"');
+            i = saltarEspacios(texto, finDeString(texto, i));
+            esperar(texto, i, ':');
+            int inicio = saltarEspacios(texto, i + 1);
+            int fin = finDeValor(texto, inicio);
+            valores.add(new int[]{inicio, fin});
+            i = saltarEspacios(texto, fin);
+            if (i < texto.length() && texto.charAt(i) == ',') {
+                i = saltarEspacios(texto, i + 1);
+                continue;
+            }
+            esperar(texto, i, '}');
+            return valores;
+        }
+    }
+
+    private static int finDeValor(String texto, int i) {
+        if (i >= texto.length()) {
+            throw new IllegalStateException("JSON truncado");
+        }
+        char c = texto.charAt(i);
+        if (c == '"') {
+            return finDeString(texto, i);
+        }
+        if (c != '{' && c != '[') {
+            int j = i;
+            while (j < texto.length() && ",}] \t\r\n".indexOf(texto.charAt(j)) < 0) {
+                j++;
+            }
+            return j;
+        }
+        int profundidad = 0;
+        for (int j = i; j < texto.length(); j++) {
+            switch (texto.charAt(j)) {
+                case '"' -> j = finDeString(texto, j) - 1;
+                case '{', '[' -> profundidad++;
+                case '}', ']' -> {
+                    if (--profundidad == 0) {
+                        return j + 1;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        throw new IllegalStateException("JSON truncado");
+    }
+
+    // Recibe la posición de la comilla de apertura y devuelve la siguiente a la de cierre
+    private static int finDeString(String texto, int i) {
+        for (int j = i + 1; j < texto.length(); j++) {
+            char c = texto.charAt(j);
+            if (c == '\\') {
+                j++;
+            } else if (c == '"') {
+                return j + 1;
+            }
+        }
+        throw new IllegalStateException("String sin cerrar en el JSON");
+    }
+
+    private static int saltarEspacios(String texto, int i) {
+        while (i < texto.length() && Character.isWhitespace(texto.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void esperar(String texto, int i, char esperado) {
+        if (i >= texto.length() || texto.charAt(i) != esperado) {
+            throw new IllegalStateException("Se esperaba '" + esperado + "' en la posición " + i + " del JSON");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ar.edu.tpo.repository;
+
+/**
+ * El scrim que se intentó guardar se leyó antes de otro guardar del mismo
+ * scrim: guardarlo pisaría ese cambio.
+ */
+public class ConflictoDeVersionException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String idScrim;
+
+    public ConflictoDeVersionException(String idScrim, long versionLeida, long versionActual) {
+        super("El scrim " + idScrim + " cambió mientras se editaba (versión leída " + versionLeida
+                + ", actual " + versionActual + ")");
+        this.idScrim = idScrim;
+    }
+
+    public String getIdScrim() {
+        return idScrim;
+    }
+}
@@ -0,0 +1,166 @@
+package ar.edu.tpo.repository;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura diferida (write-behind) con group commit: los repositorios marcan
+ * cambios y un hilo en segundo plano los vuelca juntos, a lo sumo una vez por
+ * intervalo o apenas se acumula un lote completo.
+ *
+ * El volcado se ejecuta fuera del lock interno para no invertir el orden de
+ * locks con el repositorio, que invoca {@link #marcarCambio()} bajo su propio lock.
+ */
+public class EscrituraDiferida implements AutoCloseable {
+
+    private final String nombre;
+    private final Runnable volcado;
+    private final int tamanioLote;
+    private final ScheduledExecutorService ejecutor;
+
+    private int cambiosPendientes;
+    private long primerCambioPendienteNanos;
+    private volatile long volcados;
+    private volatile long ultimoLagMs;
+    private volatile long maximoLagMs;
+    private boolean cerrada = false;
+
+    public EscrituraDiferida(String nombre, Duration intervalo, int tamanioLote, Runnable volcado) {
+        Objects.requireNonNull(intervalo, "intervalo requerido");
+        if (intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("El intervalo de volcado debe ser positivo");
+        }
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser >= 1");
+        }
+        this.nombre = Objects.requireNonNull(nombre, "nombre requerido");
+        this.volcado = Objects.requireNonNull(volcado, "volcado requerido");
+        this.tamanioLote = tamanioLote;
+        this.ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "EscrituraDiferida-" + nombre);
+            t.setDaemon(true);
+            return t;
+        });
+        long intervaloMs = intervalo.toMillis();
+        ejecutor.scheduleWithFixedDelay(this::volcarEnSegundoPlano, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un cambio pendiente de persistir. Si se completa un lote se
+     * adelanta el volcado sin esperar al próximo intervalo.
+     */
+    public void marcarCambio() {
+        boolean loteCompleto;
+        synchronized (this) {
+            if (cerrada) {
+                throw new IllegalStateException("La escritura diferida de " + nombre + " está cerrada");
+            }
+            if (cambiosPendientes == 0) {
+                primerCambioPendienteNanos = System.nanoTime();
+            }
+            cambiosPendientes++;
+            loteCompleto = cambiosPendientes == tamanioLote;
+        }
+        if (loteCompleto) {
+            try {
+                ejecutor.execute(this::volcarEnSegundoPlano);
+            } catch (RejectedExecutionException e) {
+                // Se está cerrando: close() vuelca lo pendiente.
+            }
+        }
+    }
+
+    /**
+     * Vuelca en el hilo actual los cambios pendientes, si los hay.
+     */
+    public void flush() {
+        int pendientes;
+        long desde;
+        synchronized (this) {
+            pendientes = cambiosPendientes;
+            desde = primerCambioPendienteNanos;
+            cambiosPendientes = 0;
+        }
+        if (pendientes == 0) {
+            return;
+        }
+        try {
+            volcado.run();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (cambiosPendientes == 0) {
+                    primerCambioPendienteNanos = desde;
+                }
+                cambiosPendientes += pendientes;
+            }
+            throw e;
+        }
+        long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - desde);
+        synchronized (this) {
+            ultimoLagMs = lagMs;
+            if (lagMs > maximoLagMs) {
+                maximoLagMs = lagMs;
+            }
+            volcados++;
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente y detiene el hilo de fondo.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+        }
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public synchronized int getCambiosPendientes() {
+        return cambiosPendientes;
+    }
+
+    public long getVolcados() {
+        return volcados;
+    }
+
+    /**
+     * Demora entre el primer cambio de un lote y el fin de su volcado.
+     */
+    public long getUltimoLagMs() {
+        return ultimoLagMs;
+    }
+
+    public long getMaximoLagMs() {
+        return maximoLagMs;
+    }
+
+    public String resumen() {
+        return "%s: volcados=%d, pendientes=%d, lag último=%dms, lag máx=%dms"
+                .formatted(nombre, volcados, getCambiosPendientes(), ultimoLagMs, maximoLagMs);
+    }
+
+    private void volcarEnSegundoPlano() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("[persistencia] Error en volcado diferido de " + nombre + ": " + e.getMessage());
+        }
+    }
+}
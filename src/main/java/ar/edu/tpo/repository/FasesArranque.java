@@ -0,0 +1,37 @@
+package ar.edu.tpo.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempos de las fases de carga de un repositorio (lectura, decodificación,
+ * journal, índices...). Cada {@link #marcar} cierra la fase en curso.
+ */
+public class FasesArranque {
+
+    private final String nombre;
+    private final long inicio = System.nanoTime();
+    private final Map<String, Long> fases = new LinkedHashMap<>();
+    private long ultimaMarca = inicio;
+
+    public FasesArranque(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public synchronized void marcar(String fase) {
+        long ahora = System.nanoTime();
+        fases.merge(fase, ahora - ultimaMarca, Long::sum);
+        ultimaMarca = ahora;
+    }
+
+    public synchronized String resumen() {
+        StringBuilder sb = new StringBuilder(nombre).append(':');
+        fases.forEach((fase, nanos) -> sb.append(' ').append(fase).append(' ').append(ms(nanos)).append(" ms,"));
+        return sb.append(" total ").append(ms(ultimaMarca - inicio)).append(" ms").toString();
+    }
+
+    private static long ms(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
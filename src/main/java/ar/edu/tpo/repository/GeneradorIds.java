@@ -0,0 +1,26 @@
+package ar.edu.tpo.repository;
+
+/**
+ * Fuente de ids numéricos para las entidades de un repositorio. Debe poder
+ * usarse desde varios hilos y no repetir ids entre reinicios.
+ */
+public interface GeneradorIds extends AutoCloseable {
+
+    String siguiente();
+
+    /**
+     * Informa un id que ya está en uso (cargado de disco o asignado por
+     * afuera) para que los próximos sean mayores. Los ids no numéricos se ignoran.
+     */
+    void reservar(String idUsado);
+
+    /**
+     * true si el generador arrancó sin estado previo: el repositorio tiene que
+     * {@link #reservar} los ids que ya existen antes de pedir ids nuevos.
+     */
+    boolean sinHistoria();
+
+    @Override
+    default void close() {
+    }
+}
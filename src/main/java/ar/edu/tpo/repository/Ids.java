@@ -0,0 +1,39 @@
+package ar.edu.tpo.repository;
+
+/**
+ * Orden de ids compartido por repositorios, índices y listados paginados.
+ */
+final class Ids {
+
+    private Ids() {
+    }
+
+    /**
+     * Orden de ids: primero los numéricos por valor, después el resto alfabéticamente.
+     */
+    static int comparar(String a, String b) {
+        boolean aNumerico = !a.isEmpty() && a.chars().allMatch(Character::isDigit);
+        boolean bNumerico = !b.isEmpty() && b.chars().allMatch(Character::isDigit);
+        if (aNumerico && bNumerico) {
+            String aSinCeros = sinCerosIniciales(a);
+            String bSinCeros = sinCerosIniciales(b);
+            if (aSinCeros.length() != bSinCeros.length()) {
+                return Integer.compare(aSinCeros.length(), bSinCeros.length());
+            }
+            int porValor = aSinCeros.compareTo(bSinCeros);
+            return porValor != 0 ? porValor : a.compareTo(b);
+        }
+        if (aNumerico != bNumerico) {
+            return aNumerico ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static String sinCerosIniciales(String id) {
+        int i = 0;
+        while (i < id.length() - 1 && id.charAt(i) == '0') {
+            i++;
+        }
+        return id.substring(i);
+    }
+}
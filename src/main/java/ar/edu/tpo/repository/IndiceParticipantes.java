@@ -0,0 +1,83 @@
+package ar.edu.tpo.repository;
+
+import ar.edu.tpo.domain.Equipo;
+import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.domain.WaitlistEntry;
+
+import java.util.*;
+
+/**
+ * Índice inverso email → ids de scrims en los que la persona participa: como
+ * creador, como integrante de un equipo o en la lista de suplentes.
+ *
+ * Al actualizar un scrim solo se tocan los emails que entraron o salieron
+ * desde el último guardar, gracias a los participantes recordados por id.
+ */
+class IndiceParticipantes {
+
+    private final Map<String, NavigableSet<String>> scrimsPorEmail = new HashMap<>();
+    private final Map<String, Set<String>> emailsPorScrim = new HashMap<>();
+
+    void actualizar(Scrim scrim) {
+        String id = scrim.getId();
+        Set<String> nuevos = participantesDe(scrim);
+        Set<String> previos = emailsPorScrim.put(id, nuevos);
+        if (previos != null) {
+            for (String email : previos) {
+                if (!nuevos.contains(email)) {
+                    NavigableSet<String> ids = scrimsPorEmail.get(email);
+                    if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                        scrimsPorEmail.remove(email);
+                    }
+                }
+            }
+        }
+        for (String email : nuevos) {
+            if (previos == null || !previos.contains(email)) {
+                scrimsPorEmail.computeIfAbsent(email, k -> new TreeSet<>(Ids::comparar)).add(id);
+            }
+        }
+    }
+
+    void eliminar(String id) {
+        Set<String> previos = emailsPorScrim.remove(id);
+        if (previos == null) {
+            return;
+        }
+        for (String email : previos) {
+            NavigableSet<String> ids = scrimsPorEmail.get(email);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                scrimsPorEmail.remove(email);
+            }
+        }
+    }
+
+    void reconstruir(Collection<Scrim> scrims) {
+        scrimsPorEmail.clear();
+        emailsPorScrim.clear();
+        for (Scrim scrim : scrims) {
+            actualizar(scrim);
+        }
+    }
+
+    Set<String> scrimsDe(String email) {
+        return scrimsPorEmail.getOrDefault(IndiceScrims.normalizar(email), Collections.emptyNavigableSet());
+    }
+
+    private static Set<String> participantesDe(Scrim scrim) {
+        Set<String> emails = new HashSet<>();
+        emails.add(IndiceScrims.normalizar(scrim.getEmailCreador()));
+        agregarEquipo(emails, scrim.getEquipo1());
+        agregarEquipo(emails, scrim.getEquipo2());
+        for (WaitlistEntry entry : scrim.getListaEspera()) {
+            emails.add(IndiceScrims.normalizar(entry.emailJugador()));
+        }
+        return emails;
+    }
+
+    private static void agregarEquipo(Set<String> emails, Equipo equipo) {
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            emails.add(IndiceScrims.normalizar(equipo.getJugador(i)));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ar.edu.tpo.repository;
+
+import ar.edu.tpo.domain.Scrim;
+
+import java.util.*;
+
+/**
+ * Índices secundarios de scrims (estado, región, formato, creador y banda de
+ * MMR), actualizados de a un scrim por vez en cada guardar. Cada índice guarda
+ * ids ordenados, así que una consulta recorre solo los ids de su clave.
+ *
+ * Se recuerdan las claves con las que se indexó cada scrim para poder sacarlo
+ * de las anteriores cuando cambia. Como el scrim puede haberse modificado
+ * después de su último guardar, quien consulta debe volver a filtrar por los
+ * valores actuales.
+ */
+class IndiceScrims {
+
+    static final int ANCHO_BANDA_MMR = 250;
+    // Un rango que abarca más bandas que esto va a "amplios" en lugar de a cada banda.
+    private static final int MAX_BANDAS_POR_SCRIM = 64;
+
+    private final Map<String, NavigableSet<String>> porEstado = new HashMap<>();
+    private final Map<String, NavigableSet<String>> porRegion = new HashMap<>();
+    private final Map<String, NavigableSet<String>> porFormato = new HashMap<>();
+    private final Map<String, NavigableSet<String>> porCreador = new HashMap<>();
+    private final Map<Integer, NavigableSet<String>> porBandaMmr = new HashMap<>();
+    private final NavigableSet<String> rangosAmplios = nuevoConjunto();
+    private final Map<String, Claves> indexados = new HashMap<>();
+
+    private record Claves(String estado, String region, String formato, String creador, int bandaMin, int bandaMax) {
+        boolean amplio() {
+            return bandaMax - bandaMin + 1 > MAX_BANDAS_POR_SCRIM;
+        }
+    }
+
+    void actualizar(Scrim scrim) {
+        Claves nuevas = clavesDe(scrim);
+        Claves previas = indexados.put(scrim.getId(), nuevas);
+        if (nuevas.equals(previas)) {
+            return;
+        }
+        if (previas != null) {
+            quitar(scrim.getId(), previas);
+        }
+        agregar(scrim.getId(), nuevas);
+    }
+
+    void eliminar(String id) {
+        Claves previas = indexados.remove(id);
+        if (previas != null) {
+            quitar(id, previas);
+        }
+    }
+
+    void reconstruir(Collection<Scrim> scrims) {
+        porEstado.clear();
+        porRegion.clear();
+        porFormato.clear();
+        porCreador.clear();
+        porBandaMmr.clear();
+        rangosAmplios.clear();
+        indexados.clear();
+        for (Scrim scrim : scrims) {
+            actualizar(scrim);
+        }
+    }
+
+    Set<String> porEstado(String nombreEstado) {
+        return porEstado.getOrDefault(nombreEstado, Collections.emptyNavigableSet());
+    }
+
+    Set<String> porRegion(String region) {
+        return porRegion.getOrDefault(normalizar(region), Collections.emptyNavigableSet());
+    }
+
+    Set<String> porFormato(String formato) {
+        return porFormato.getOrDefault(normalizar(formato), Collections.emptyNavigableSet());
+    }
+
+    Set<String> porCreador(String email) {
+        return porCreador.getOrDefault(normalizar(email), Collections.emptyNavigableSet());
+    }
+
+    /**
+     * Ids de los scrims cuyo rango de MMR puede incluir {@code mmr}.
+     */
+    Set<String> porMmr(int mmr) {
+        NavigableSet<String> banda = porBandaMmr.getOrDefault(bandaDe(mmr), Collections.emptyNavigableSet());
+        if (rangosAmplios.isEmpty()) {
+            return banda;
+        }
+        NavigableSet<String> union = nuevoConjunto();
+        union.addAll(banda);
+        union.addAll(rangosAmplios);
+        return union;
+    }
+
+    static String normalizar(String valor) {
+        return valor == null ? "" : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void agregar(String id, Claves claves) {
+        porEstado.computeIfAbsent(claves.estado(), k -> nuevoConjunto()).add(id);
+        porRegion.computeIfAbsent(claves.region(), k -> nuevoConjunto()).add(id);
+        porFormato.computeIfAbsent(claves.formato(), k -> nuevoConjunto()).add(id);
+        porCreador.computeIfAbsent(claves.creador(), k -> nuevoConjunto()).add(id);
+        if (claves.amplio()) {
+            rangosAmplios.add(id);
+            return;
+        }
+        for (int banda = claves.bandaMin(); banda <= claves.bandaMax(); banda++) {
+            porBandaMmr.computeIfAbsent(banda, k -> nuevoConjunto()).add(id);
+        }
+    }
+
+    private void quitar(String id, Claves claves) {
+        quitarDe(porEstado, claves.estado(), id);
+        quitarDe(porRegion, claves.region(), id);
+        quitarDe(porFormato, claves.formato(), id);
+        quitarDe(porCreador, claves.creador(), id);
+        if (claves.amplio()) {
+            rangosAmplios.remove(id);
+            return;
+        }
+        for (int banda = claves.bandaMin(); banda <= claves.bandaMax(); banda++) {
+            quitarDe(porBandaMmr, banda, id);
+        }
+    }
+
+    private static <K> void quitarDe(Map<K, NavigableSet<String>> indice, K clave, String id) {
+        NavigableSet<String> ids = indice.get(clave);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            indice.remove(clave);
+        }
+    }
+
+    private static Claves clavesDe(Scrim scrim) {
+        return new Claves(
+                scrim.getEstado().getNombre(),
+                normalizar(scrim.getRegion()),
+                normalizar(scrim.getFormato()),
+                normalizar(scrim.getEmailCreador()),
+                bandaDe(scrim.getRangoMin()),
+                bandaDe(scrim.getRangoMax()));
+    }
+
+    private static int bandaDe(int mmr) {
+        return Math.floorDiv(mmr, ANCHO_BANDA_MMR);
+    }
+
+    private static NavigableSet<String> nuevoConjunto() {
+        return new TreeSet<>(Ids::comparar);
+    }
+}
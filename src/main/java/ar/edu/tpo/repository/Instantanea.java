@@ -0,0 +1,15 @@
+package ar.edu.tpo.repository;
+
+import java.util.List;
+
+/**
+ * Vista inmutable del contenido de un repositorio en un momento dado.
+ * {@code version} cuenta los guardar confirmados hasta ese momento, así que dos
+ * instantáneas con la misma versión tienen el mismo contenido.
+ */
+public record Instantanea<T>(long version, List<T> elementos) {
+
+    public Instantanea {
+        elementos = List.copyOf(elementos);
+    }
+}
@@ -1,102 +1,226 @@
 package ar.edu.tpo.repository;
 
 import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.repository.binario.ScrimCodecBinario;
+import ar.edu.tpo.repository.binario.SnapshotBinario;
+import ar.edu.tpo.repository.journal.Journal;
 import ar.edu.tpo.repository.json.ScrimJsonAdapter;
 import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
 
 import java.io.*;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
-public class JsonScrimRepository implements ScrimRepository {
+public class JsonScrimRepository extends AbstractScrimRepository {
 
     private final String ruta;
     private final Gson gson;
-    private final Map<String, Scrim> cache;
-    private long nextId;
+    private final Gson gsonCompacto;
+    private final Journal journal;
+    private final int checkpointCada;
+    private final File snapshotBinario;
 
     public JsonScrimRepository(String rutaArchivo){
+        this(rutaArchivo, 0);
+    }
+
+    /**
+     * Modo journal: cada guardar agrega un registro compacto del scrim modificado
+     * a {@code <ruta>.log} y cada {@code checkpointCada} registros se reescribe el
+     * snapshot completo y se trunca el log. Con {@code checkpointCada <= 0} se
+     * reescribe el snapshot en cada guardar (comportamiento clásico).
+     */
+    public JsonScrimRepository(String rutaArchivo, int checkpointCada){
+        this(rutaArchivo, checkpointCada, false);
+    }
+
+    /**
+     * Con {@code snapshotBinario} el snapshot se guarda en formato binario
+     * ({@code scrims.bin}) y el JSON queda solo para importar (si todavía no
+     * hay binario) y exportar, lo que ocurre al cerrar el repositorio.
+     */
+    public JsonScrimRepository(String rutaArchivo, int checkpointCada, boolean snapshotBinario){
+        this(rutaArchivo, checkpointCada, snapshotBinario, new SecuenciaPorBloques(SecuenciaPorBloques.rutaPara(rutaArchivo)));
+    }
+
+    /**
+     * Por defecto los ids salen de {@code scrims.seq} ({@link SecuenciaPorBloques}).
+     */
+    public JsonScrimRepository(String rutaArchivo, int checkpointCada, boolean snapshotBinario, GeneradorIds generadorIds){
+        super("scrims", generadorIds);
         this.ruta = rutaArchivo;
+        this.snapshotBinario = snapshotBinario ? SnapshotBinario.rutaPara(rutaArchivo) : null;
         this.gson = new GsonBuilder()
                 .setPrettyPrinting()
-                .registerTypeAdapter(Scrim.class, new ScrimJsonAdapter())
+                .registerTypeAdapter(Scrim.class, new ScrimJsonAdapter(diccionario))
                 .create();
-        this.cache = cargarDesdeDisco();
-        this.nextId = calcularSiguienteId(this.cache.keySet());
+        this.gsonCompacto = new GsonBuilder()
+                .registerTypeAdapter(Scrim.class, new ScrimJsonAdapter(diccionario))
+                .create();
+        this.checkpointCada = checkpointCada;
+        this.journal = checkpointCada > 0 ? new Journal(rutaArchivo + ".log") : null;
+        boolean importarJson = this.snapshotBinario != null && !this.snapshotBinario.exists();
+        this.cache.putAll(cargarDesdeDisco());
+        boolean journalConRegistros = journal != null && reproducirJournal();
+        arranque.marcar("journal");
+        if (journalConRegistros || (importarJson && !cache.isEmpty())) {
+            checkpoint();
+            arranque.marcar("checkpoint");
+        }
+        abrirArchivo(rutaArchivo(rutaArchivo));
+        terminarCarga(this.cache.keySet());
     }
 
     @Override
-    public void guardar(Scrim scrim) {
-        if (scrim.getId() == null || scrim.getId().isBlank()) {
-            scrim.asignarId(String.valueOf(nextId++));
-        } else {
-            actualizarSecuencia(scrim.getId());
+    protected void persistirCambio(Scrim scrim) {
+        if (journal == null) {
+            persistir();
+            return;
+        }
+        journal.agregar(gsonCompacto.toJson(scrim, Scrim.class));
+        if (journal.getRegistrosPendientes() >= checkpointCada) {
+            checkpoint();
         }
-        cache.put(scrim.getId(), scrim);
+    }
+
+    /**
+     * Archivo de scrims terminados que acompaña al JSON: {@code scrims.json -> scrims.archivo}.
+     */
+    static File rutaArchivo(String rutaJson) {
+        String base = rutaJson.endsWith(".json") ? rutaJson.substring(0, rutaJson.length() - 5) : rutaJson;
+        return new File(base + ".archivo");
+    }
+
+    /**
+     * El snapshot se reescribe sin los archivados, y el journal (que podría
+     * tener registros de ellos) se trunca.
+     */
+    @Override
+    protected void persistirArchivados(Collection<String> ids) {
+        checkpoint();
+    }
+
+    /**
+     * Escribe un snapshot con el estado actual y vacía el journal.
+     * Sin journal equivale a una reescritura completa del archivo.
+     */
+    public synchronized void checkpoint() {
         persistir();
+        sucios.clear();
+        if (journal != null) {
+            journal.truncar();
+        }
+    }
+
+    /**
+     * Escribe el estado actual en el archivo JSON, aunque se use snapshot binario.
+     */
+    public synchronized void exportarJson() {
+        try {
+            ArchivoAtomico.escribir(new File(ruta), w -> gson.toJson(cache, w));
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar JSON: " + e.getMessage(), e);
+        }
     }
 
+    /**
+     * Al cerrar se compacta el journal en el snapshot y, con snapshot binario,
+     * se exporta el JSON.
+     */
     @Override
-    public Scrim buscarPorId(String id) {
-        Scrim s = cache.get(id);
-        if (s == null) throw new IllegalArgumentException("Scrim no encontrado");
-        return s;
+    protected void cerrarAlmacenamiento() {
+        if (snapshotBinario != null) {
+            exportarJson();
+        }
+        if (journal != null) {
+            checkpoint();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("[journal] Error al cerrar " + journal.getRuta() + ": " + e.getMessage());
+            }
+        }
     }
 
+    /**
+     * En modo journal agrega un único registro por scrim sucio, aunque haya
+     * cambiado varias veces dentro del lote.
+     */
     @Override
-    public List<Scrim> listar() {
-        return new ArrayList<>(cache.values());
+    protected void volcarSucios() {
+        if (journal == null) {
+            persistir();
+            sucios.clear();
+            return;
+        }
+        List<String> registros = new ArrayList<>(sucios.size());
+        for (String id : sucios) {
+            registros.add(gsonCompacto.toJson(cache.get(id), Scrim.class));
+        }
+        journal.agregarTodos(registros);
+        sucios.clear();
+        if (journal.getRegistrosPendientes() >= checkpointCada) {
+            checkpoint();
+        }
     }
 
     private void persistir(){
+        if (snapshotBinario == null) {
+            exportarJson();
+            return;
+        }
         try {
-            File f = new File(ruta);
-            f.getParentFile().mkdirs();
-            try (Writer w = new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8)) {
-                gson.toJson(cache, w);
-            }
+            SnapshotBinario.escribir(snapshotBinario, cache.values(), new ScrimCodecBinario(diccionario));
         } catch (IOException e) {
-            throw new RuntimeException("Error al guardar JSON: " + e.getMessage(), e);
+            throw new RuntimeException("Error al guardar snapshot binario: " + e.getMessage(), e);
         }
     }
 
     private Map<String, Scrim> cargarDesdeDisco(){
         try {
+            if (snapshotBinario != null && snapshotBinario.exists()) {
+                Map<String, Scrim> m = new LinkedHashMap<>();
+                for (Scrim scrim : SnapshotBinario.leer(snapshotBinario, new ScrimCodecBinario(diccionario))) {
+                    m.put(scrim.getId(), scrim);
+                }
+                arranque.marcar("snapshot binario");
+                return m;
+            }
             File f = new File(ruta);
+            ArchivoAtomico.validar(f);
             if (!f.exists()) return new LinkedHashMap<>();
-            try (Reader r = new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8)) {
-                Type t = new TypeToken<LinkedHashMap<String, Scrim>>(){}.getType();
-                Map<String, Scrim> m = gson.fromJson(r, t);
-                return (m != null) ? m : new LinkedHashMap<>();
+            Map<String, Scrim> m = new LinkedHashMap<>();
+            for (Scrim scrim : CargaParalela.leerObjetoJson(f, json -> gsonCompacto.fromJson(json, Scrim.class), arranque)) {
+                m.put(scrim.getId(), scrim);
             }
-        } catch (IOException e) {
+            return m;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
             throw new RuntimeException("Error al leer JSON: " + e.getMessage(), e);
         }
     }
 
-    private long calcularSiguienteId(Set<String> ids) {
-        long max = 0L;
-        for (String id : ids) {
+    /**
+     * Aplica sobre el snapshot cargado los registros del journal, en orden.
+     * Si un registro no se puede interpretar se detiene la reproducción ahí:
+     * los posteriores podrían depender de él.
+     * @return true si el journal tenía registros y conviene compactarlo
+     */
+    private boolean reproducirJournal() {
+        List<String> registros = journal.leer();
+        int aplicados = 0;
+        for (String registro : registros) {
             try {
-                long value = Long.parseLong(id);
-                if (value > max) {
-                    max = value;
-                }
-            } catch (NumberFormatException ignored) {
+                Scrim scrim = gsonCompacto.fromJson(registro, Scrim.class);
+                cache.put(scrim.getId(), scrim);
+                aplicados++;
+            } catch (RuntimeException e) {
+                System.err.println("[journal] Registro inválido en " + journal.getRuta() +
+                        " (se ignoran los siguientes): " + e.getMessage());
+                break;
             }
         }
-        return max + 1;
-    }
-
-    private void actualizarSecuencia(String idExistente) {
-        try {
-            long valor = Long.parseLong(idExistente);
-            if (valor >= nextId) {
-                nextId = valor + 1;
-            }
-        } catch (NumberFormatException ignored) {
+        if (aplicados > 0) {
+            System.out.println("[journal] " + aplicados + " cambios recuperados de " + journal.getRuta());
         }
+        return !registros.isEmpty();
     }
 }
@@ -1,411 +1,397 @@
 package ar.edu.tpo.repository;
 
-import ar.edu.tpo.domain.Jugador;
-import ar.edu.tpo.domain.Organizador;
-import ar.edu.tpo.domain.SancionActiva;
 import ar.edu.tpo.domain.Usuario;
-import ar.edu.tpo.domain.SancionHistorica;
-import ar.edu.tpo.domain.alerta.ScrimAlerta;
-import ar.edu.tpo.domain.rangos.StateRangos;
-import ar.edu.tpo.domain.regiones.StateRegion;
-import ar.edu.tpo.domain.roles.StateRoles;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import ar.edu.tpo.repository.binario.SnapshotBinario;
+import ar.edu.tpo.repository.binario.UsuarioCodecBinario;
+import ar.edu.tpo.repository.journal.Journal;
+import ar.edu.tpo.repository.json.UsuarioJsonCodec;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Predicate;
 
-public class JsonUsuarioRepository implements UsuarioRepository {
-
-    private static final String TIPO_ORGANIZADOR = "Organizador";
-    private static final String TIPO_JUGADOR = "Jugador";
+public class JsonUsuarioRepository implements UsuarioRepository, AutoCloseable {
 
     private final String ruta;
-    private final Gson gson;
+    private final UsuarioJsonCodec codec = new UsuarioJsonCodec();
+    private final File snapshotBinario;
+    private final Journal journal;
+    private final int checkpointCada;
     private final Map<String, Usuario> cache;
-    private long nextId;
+    // Los mismos usuarios ordenados por id, para los listados paginados
+    private final NavigableMap<String, Usuario> porId = new TreeMap<>(Ids::comparar);
+    // Emails con cambios que la escritura diferida todavía no volcó
+    private final Set<String> sucios = new LinkedHashSet<>();
+    private final GeneradorIds generadorIds;
     private boolean requierePersistencia = false;
+    private EscrituraDiferida escrituraDiferida;
+    private final FasesArranque arranque = new FasesArranque("usuarios");
 
     public JsonUsuarioRepository(String rutaArchivo){
+        this(rutaArchivo, false);
+    }
+
+    /**
+     * Con {@code snapshotBinario} el estado se guarda en el snapshot binario
+     * ({@code usuarios.bin}) y el JSON queda solo para importar (si todavía no
+     * hay binario) y exportar, lo que ocurre al cerrar el repositorio.
+     */
+    public JsonUsuarioRepository(String rutaArchivo, boolean snapshotBinario){
+        this(rutaArchivo, snapshotBinario, 0);
+    }
+
+    /**
+     * Modo journal: cada alta o actualización agrega solo el usuario modificado
+     * a {@code <ruta>.log} (un registro por email; al reproducir gana el último)
+     * y cada {@code checkpointCada} registros se reescribe el snapshot completo y
+     * se trunca el log. Con {@code checkpointCada <= 0} se reescribe el snapshot
+     * en cada cambio.
+     */
+    public JsonUsuarioRepository(String rutaArchivo, boolean snapshotBinario, int checkpointCada){
+        this(rutaArchivo, snapshotBinario, checkpointCada, new SecuenciaPorBloques(SecuenciaPorBloques.rutaPara(rutaArchivo)));
+    }
+
+    /**
+     * Por defecto los ids salen de {@code usuarios.seq} ({@link SecuenciaPorBloques}).
+     */
+    public JsonUsuarioRepository(String rutaArchivo, boolean snapshotBinario, int checkpointCada, GeneradorIds generadorIds){
         this.ruta = rutaArchivo;
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.generadorIds = generadorIds;
+        this.snapshotBinario = snapshotBinario ? SnapshotBinario.rutaPara(rutaArchivo) : null;
+        this.checkpointCada = checkpointCada;
+        this.journal = checkpointCada > 0 ? new Journal(rutaArchivo + ".log") : null;
         this.cache = cargarDesdeDisco();
-        this.nextId = calcularSiguienteId(this.cache.values());
+        if (journal != null && reproducirJournal()) {
+            requierePersistencia = true;
+        }
+        arranque.marcar("journal");
+        if (generadorIds.sinHistoria()) {
+            for (Usuario usuario : cache.values()) {
+                generadorIds.reservar(usuario.getId());
+            }
+        }
+        for (Usuario usuario : cache.values()) {
+            if (usuario.getId() == null || usuario.getId().isBlank()) {
+                usuario.asignarId(generadorIds.siguiente());
+            }
+            porId.put(usuario.getId(), usuario);
+        }
+        arranque.marcar("índices");
         if (requierePersistencia) {
-            persistir();
+            checkpoint();
+            arranque.marcar("checkpoint");
         }
     }
 
+    /**
+     * Tiempos de la carga inicial, por fase.
+     */
+    public FasesArranque getArranque() {
+        return arranque;
+    }
+
     @Override
-    public void guardar(Usuario u) {
+    public synchronized void guardar(Usuario u) {
         if (cache.containsKey(u.getEmail())) throw new IllegalArgumentException("Email ya registrado");
         asignarIdSiNecesario(u);
         cache.put(u.getEmail(), u);
-        persistir();
+        porId.put(u.getId(), u);
+        registrarCambio(u);
     }
 
     @Override
-    public Usuario buscar(String email) {
+    public synchronized Usuario buscar(String email) {
         return cache.get(email);
     }
 
     @Override
-    public Collection<Usuario> listar() {
+    public synchronized Collection<Usuario> listar() {
         return new ArrayList<>(cache.values());
     }
 
     @Override
-    public void actualizar(Usuario u) {
+    public synchronized void actualizar(Usuario u) {
+        reemplazar(u);
+        registrarCambio(u);
+    }
+
+    /**
+     * Sin journal ni escritura diferida reescribe el archivo una sola vez para
+     * todo el lote, en lugar de una vez por usuario.
+     */
+    @Override
+    public synchronized void actualizarTodos(Collection<Usuario> usuarios) {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        usuarios.forEach(this::reemplazar);
+        if (escrituraDiferida != null) {
+            usuarios.forEach(u -> sucios.add(u.getEmail()));
+            escrituraDiferida.marcarCambio();
+            return;
+        }
+        if (journal == null) {
+            persistir();
+            return;
+        }
+        journal.agregarTodos(usuarios.stream().map(this::registroJournal).toList());
+        checkpointSiCorresponde();
+    }
+
+    private void reemplazar(Usuario u) {
         if (!cache.containsKey(u.getEmail())) {
             throw new IllegalArgumentException("Usuario no registrado: " + u.getEmail());
         }
         asignarIdSiNecesario(u);
-        cache.put(u.getEmail(), u);
-        persistir();
+        Usuario anterior = cache.put(u.getEmail(), u);
+        if (anterior != null && !u.getId().equals(anterior.getId())) {
+            porId.remove(anterior.getId());
+        }
+        porId.put(u.getId(), u);
     }
 
-    private void persistir(){
-        try {
-            File f = new File(ruta);
-            File parent = f.getParentFile();
-            if (parent != null) {
-                parent.mkdirs();
+    @Override
+    public synchronized Pagina<Usuario> listar(Predicate<Usuario> filtro, String desdeId, int limite) {
+        Collection<Usuario> desde = desdeId == null ? porId.values() : porId.tailMap(desdeId, false).values();
+        return Pagina.armar(desde, Usuario::getId, filtro, limite);
+    }
+
+    /**
+     * Activa la escritura diferida: guardar/actualizar solo marcan el usuario
+     * como sucio y un hilo de fondo los persiste juntos una vez por
+     * {@code intervalo} o al juntar {@code tamanioLote} cambios.
+     */
+    public synchronized void habilitarEscrituraDiferida(Duration intervalo, int tamanioLote) {
+        if (escrituraDiferida != null) {
+            throw new IllegalStateException("La escritura diferida ya está habilitada");
+        }
+        escrituraDiferida = new EscrituraDiferida("usuarios", intervalo, tamanioLote, this::volcarPendientes);
+    }
+
+    public synchronized EscrituraDiferida getEscrituraDiferida() {
+        return escrituraDiferida;
+    }
+
+    /**
+     * Persiste de inmediato los cambios que estén pendientes por la escritura diferida.
+     */
+    public void flush() {
+        EscrituraDiferida diferida = getEscrituraDiferida();
+        if (diferida != null) {
+            diferida.flush();
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente, compacta el journal en el snapshot y, con snapshot
+     * binario, exporta el JSON.
+     */
+    @Override
+    public void close() {
+        EscrituraDiferida diferida = getEscrituraDiferida();
+        if (diferida != null) {
+            diferida.close();
+        }
+        synchronized (this) {
+            if (snapshotBinario != null) {
+                exportarJson();
             }
-            JsonObject root = new JsonObject();
-            for (Usuario usuario : cache.values()) {
-                JsonObject data = new JsonObject();
-                data.addProperty("tipo", usuario.getTipo());
-                data.addProperty("nombre", usuario.getNombre());
-                data.addProperty("id", usuario.getId());
-                data.addProperty("email", usuario.getEmail());
-                data.addProperty("passwordHash", usuario.getPasswordHash());
-                List<String> favoritas;
-                List<ScrimAlerta> alertas;
-                if (usuario instanceof Jugador jugador) {
-                    data.addProperty("mmr", jugador.getMmr());
-                    data.addProperty("latenciaMs", jugador.getLatenciaMs());
-                    if (jugador.getKdaHistorico() != null) {
-                        data.addProperty("kdaHistorico", jugador.getKdaHistorico());
-                    }
-                    data.addProperty("rango", jugador.getRangoNombre());
-                    data.addProperty("rolPreferido", jugador.getRolNombre());
-                    data.addProperty("region", jugador.getRegionNombre());
-                    favoritas = jugador.getScrimsFavoritas();
-                    alertas = jugador.getAlertasScrim();
-                } else {
-                    favoritas = List.of();
-                    alertas = List.of();
+            if (journal != null) {
+                checkpoint();
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("[journal] Error al cerrar " + journal.getRuta() + ": " + e.getMessage());
                 }
-                JsonArray sanciones = new JsonArray();
-                usuario.getSancionesActivasSinDepurar().forEach(sancion -> {
-                    JsonObject sancionJson = new JsonObject();
-                    sancionJson.addProperty("motivo", sancion.getMotivo());
-                    if (sancion.getExpiraEn() != null) {
-                        sancionJson.addProperty("expiraEn", sancion.getExpiraEn().toString());
-                    }
-                    sanciones.add(sancionJson);
-                });
-                data.add("sancionesActivas", sanciones);
-
-                JsonArray sancionesHistoricas = new JsonArray();
-                usuario.getSancionesHistoricas().forEach(sancion -> {
-                    JsonObject sancionJson = new JsonObject();
-                    sancionJson.addProperty("motivo", sancion.getMotivo());
-                    if (sancion.getExpiraEn() != null) {
-                        sancionJson.addProperty("expiraEn", sancion.getExpiraEn().toString());
-                    }
-                    sancionJson.addProperty("levantadaEn", sancion.getLevantadaEn().toString());
-                    sancionesHistoricas.add(sancionJson);
-                });
-                if (!sancionesHistoricas.isEmpty()) {
-                    data.add("sancionesHistoricas", sancionesHistoricas);
-                }
-                JsonArray favoritasJson = new JsonArray();
-                favoritas.forEach(favoritasJson::add);
-                data.add("scrimsFavoritas", favoritasJson);
-
-                JsonArray alertasJson = new JsonArray();
-                alertas.forEach(alerta -> {
-                    JsonObject alertaJson = new JsonObject();
-                    if (alerta.getJuego() != null && !alerta.getJuego().isBlank()) {
-                        alertaJson.addProperty("juego", alerta.getJuego());
-                    }
-                    if (alerta.getRegion() != null && !alerta.getRegion().isBlank()) {
-                        alertaJson.addProperty("region", alerta.getRegion());
-                    }
-                    if (alerta.getRangoMin() != null) {
-                        alertaJson.addProperty("rangoMin", alerta.getRangoMin());
-                    }
-                    if (alerta.getRangoMax() != null) {
-                        alertaJson.addProperty("rangoMax", alerta.getRangoMax());
-                    }
-                    if (alerta.getLatenciaMax() != null) {
-                        alertaJson.addProperty("latenciaMax", alerta.getLatenciaMax());
-                    }
-                    if (alerta.getFormato() != null && !alerta.getFormato().isBlank()) {
-                        alertaJson.addProperty("formato", alerta.getFormato());
-                    }
-                    if (alerta.getModalidad() != null && !alerta.getModalidad().isBlank()) {
-                        alertaJson.addProperty("modalidad", alerta.getModalidad());
-                    }
-                    alertasJson.add(alertaJson);
-                });
-                data.add("alertasScrim", alertasJson);
-                data.addProperty("strikeCount", usuario.getStrikeCount());
-                data.addProperty("suspendido", usuario.estaSuspendido());
-                root.add(usuario.getEmail(), data);
             }
+        }
+        generadorIds.close();
+    }
 
-            try (Writer w = new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8)) {
-                gson.toJson(root, w);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al guardar JSON: " + e.getMessage(), e);
+    /**
+     * Escribe un snapshot con el estado actual y vacía el journal.
+     * Sin journal equivale a una reescritura completa del archivo.
+     */
+    public synchronized void checkpoint() {
+        persistir();
+        sucios.clear();
+        if (journal != null) {
+            journal.truncar();
         }
     }
 
-    private Map<String, Usuario> cargarDesdeDisco(){
+    /**
+     * Escribe el estado actual en el archivo JSON, aunque se use snapshot binario.
+     */
+    public synchronized void exportarJson() {
         try {
-            File f = new File(ruta);
-            if (!f.exists()) return new LinkedHashMap<>();
-            try (Reader r = new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8)) {
-                JsonElement element = JsonParser.parseReader(r);
-                if (element == null || element.isJsonNull()) {
-                    return new LinkedHashMap<>();
-                }
-                JsonObject root = element.getAsJsonObject();
-                Map<String, Usuario> usuarios = new LinkedHashMap<>();
-                for (Map.Entry<String, JsonElement> entry : root.entrySet()) {
-                    JsonObject data = entry.getValue().getAsJsonObject();
-                    Usuario usuario = mapearUsuario(data);
-                    usuarios.put(usuario.getEmail(), usuario);
+            ArchivoAtomico.escribir(new File(ruta), salida -> {
+                JsonWriter w = new JsonWriter(salida);
+                w.setIndent("  ");
+                w.setHtmlSafe(true);
+                w.beginObject();
+                for (Usuario usuario : cache.values()) {
+                    w.name(usuario.getEmail());
+                    codec.escribir(w, usuario);
                 }
-                return usuarios;
-            }
+                w.endObject();
+                w.flush();
+            });
         } catch (IOException e) {
-            throw new RuntimeException("Error al leer JSON: " + e.getMessage(), e);
+            throw new RuntimeException("Error al guardar JSON: " + e.getMessage(), e);
         }
     }
 
-    private Usuario mapearUsuario(JsonObject data) {
-        String email = stringOrNull(data, "email");
-        String nombre = stringOrNull(data, "nombre");
-        String id = stringOrNull(data, "id");
-        String password = stringOrNull(data, "passwordHash");
-        if (password == null) {
-            password = "";
-        }
-        if (nombre == null || nombre.isBlank()) {
-            nombre = email != null ? email : "Usuario";
+    private void registrarCambio(Usuario usuario) {
+        if (escrituraDiferida != null) {
+            sucios.add(usuario.getEmail());
+            escrituraDiferida.marcarCambio();
+            return;
         }
-        int mmr = intOrDefault(data, "mmr", 0);
-        int latencia = intOrDefault(data, "latenciaMs", 0);
-        Double kda = data.has("kdaHistorico") && !data.get("kdaHistorico").isJsonNull()
-                ? data.get("kdaHistorico").getAsDouble() : null;
-
-        String tipo = stringOrNull(data, "tipo");
-        if (tipo == null) {
-            // Compatibilidad con formato legacy basado en ENUM Rol
-            String rolLegacy = stringOrNull(data, "rol");
-            if ("PLAYER".equalsIgnoreCase(rolLegacy)) {
-                tipo = TIPO_JUGADOR;
-            } else {
-                tipo = TIPO_ORGANIZADOR;
-            }
+        if (journal == null) {
+            persistir();
+            return;
         }
+        journal.agregar(registroJournal(usuario));
+        checkpointSiCorresponde();
+    }
 
-        Usuario usuario;
-        List<SancionActiva> sanciones = leerSanciones(data);
-        List<SancionHistorica> sancionesHistoricas = leerSancionesHistoricas(data);
-        List<String> favoritas = leerScrimsFavoritas(data);
-        List<ScrimAlerta> alertas = leerAlertasScrim(data);
-
-        int strikes = intOrDefault(data, "strikeCount", 0);
-        boolean suspendido = data.has("suspendido") && !data.get("suspendido").isJsonNull() && data.get("suspendido").getAsBoolean();
-
-        if (TIPO_JUGADOR.equalsIgnoreCase(tipo)) {
-            String rango = stringOrNull(data, "rango");
-            String rolPreferido = stringOrNull(data, "rolPreferido");
-            String region = stringOrNull(data, "region");
-
-            if (rango == null) {
-                rango = determinarRangoPorMmr(mmr);
-            }
-            if (rolPreferido == null) {
-                rolPreferido = StateRoles.disponibles().get(0).getNombre();
-            }
-            if (region == null) {
-                region = StateRegion.disponibles().get(0).getNombre();
-            }
-
-            usuario = new Jugador(id, nombre, email, password, mmr, latencia, rango, rolPreferido, region, sanciones, sancionesHistoricas, strikes, suspendido, favoritas, alertas);
-        } else {
-            usuario = new Organizador(id, nombre, email, password, sanciones, sancionesHistoricas, strikes, suspendido);
+    /**
+     * En modo journal agrega un único registro por usuario sucio, aunque haya
+     * cambiado varias veces dentro del lote.
+     */
+    private synchronized void volcarPendientes() {
+        if (sucios.isEmpty()) {
+            return;
         }
-
-        if (id == null || id.isBlank()) {
-            requierePersistencia = true;
+        if (journal == null) {
+            persistir();
+            sucios.clear();
+            return;
         }
-
-        if (kda != null && usuario instanceof Jugador jugador) {
-            jugador.setKdaHistorico(kda);
+        List<String> registros = new ArrayList<>(sucios.size());
+        for (String email : sucios) {
+            registros.add(registroJournal(cache.get(email)));
         }
-        return usuario;
+        journal.agregarTodos(registros);
+        sucios.clear();
+        checkpointSiCorresponde();
     }
 
-    private String stringOrNull(JsonObject obj, String key) {
-        if (!obj.has(key) || obj.get(key).isJsonNull()) {
-            return null;
+    private void checkpointSiCorresponde() {
+        if (journal.getRegistrosPendientes() >= checkpointCada) {
+            checkpoint();
         }
-        return obj.get(key).getAsString();
     }
 
-    private int intOrDefault(JsonObject obj, String key, int defaultValue) {
-        if (!obj.has(key) || obj.get(key).isJsonNull()) {
-            return defaultValue;
-        }
+    private String registroJournal(Usuario usuario) {
+        StringWriter registro = new StringWriter();
         try {
-            return obj.get(key).getAsInt();
-        } catch (NumberFormatException e) {
-            return defaultValue;
+            JsonWriter w = new JsonWriter(registro);
+            codec.escribir(w, usuario);
+            w.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al serializar usuario " + usuario.getEmail() + ": " + e.getMessage(), e);
         }
+        return registro.toString();
     }
 
-    private String determinarRangoPorMmr(int mmr) {
-        for (StateRangos rango : StateRangos.disponibles()) {
-            if (mmr >= rango.getMinimo() && mmr <= rango.getMaximo()) {
-                return rango.getNombre();
+    /**
+     * Aplica sobre el snapshot cargado los registros del journal, en orden.
+     * Si un registro no se puede interpretar se detiene la reproducción ahí.
+     * @return true si el journal tenía registros y conviene compactarlo
+     */
+    private boolean reproducirJournal() {
+        List<String> registros = journal.leer();
+        int aplicados = 0;
+        for (String registro : registros) {
+            try (JsonReader r = new JsonReader(new StringReader(registro))) {
+                Usuario usuario = codec.leer(r);
+                cache.put(usuario.getEmail(), usuario);
+                aplicados++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[journal] Registro inválido en " + journal.getRuta() +
+                        " (se ignoran los siguientes): " + e.getMessage());
+                break;
             }
         }
-        return StateRangos.disponibles().get(0).getNombre();
-    }
-
-    private List<SancionActiva> leerSanciones(JsonObject data) {
-        List<SancionActiva> sanciones = new ArrayList<>();
-        if (data.has("sancionesActivas") && data.get("sancionesActivas").isJsonArray()) {
-            for (JsonElement element : data.getAsJsonArray("sancionesActivas")) {
-                if (element == null || element.isJsonNull()) continue;
-                if (element.isJsonObject()) {
-                    JsonObject o = element.getAsJsonObject();
-                    String motivo = stringOrNull(o, "motivo");
-                    LocalDateTime expira = null;
-                    if (o.has("expiraEn") && !o.get("expiraEn").isJsonNull()) {
-                        expira = LocalDateTime.parse(o.get("expiraEn").getAsString());
-                    }
-                    if (motivo != null) {
-                        sanciones.add(new SancionActiva(motivo, expira));
-                    }
-                } else if (element.isJsonPrimitive()) {
-                    sanciones.add(new SancionActiva(element.getAsString(), null));
-                }
-            }
+        if (aplicados > 0) {
+            System.out.println("[journal] " + aplicados + " cambios recuperados de " + journal.getRuta());
         }
-        return sanciones;
+        return !registros.isEmpty();
     }
 
-    private List<SancionHistorica> leerSancionesHistoricas(JsonObject data) {
-        List<SancionHistorica> sanciones = new ArrayList<>();
-        if (data.has("sancionesHistoricas") && data.get("sancionesHistoricas").isJsonArray()) {
-            for (JsonElement element : data.getAsJsonArray("sancionesHistoricas")) {
-                if (element == null || element.isJsonNull()) continue;
-                if (element.isJsonObject()) {
-                    JsonObject o = element.getAsJsonObject();
-                    String motivo = stringOrNull(o, "motivo");
-                    LocalDateTime expira = null;
-                    if (o.has("expiraEn") && !o.get("expiraEn").isJsonNull()) {
-                        expira = LocalDateTime.parse(o.get("expiraEn").getAsString());
-                    }
-                    LocalDateTime levantada = null;
-                    if (o.has("levantadaEn") && !o.get("levantadaEn").isJsonNull()) {
-                        levantada = LocalDateTime.parse(o.get("levantadaEn").getAsString());
-                    }
-                    if (motivo != null && levantada != null) {
-                        sanciones.add(new SancionHistorica(motivo, expira, levantada));
-                    }
-                }
-            }
+    private void persistir(){
+        if (snapshotBinario == null) {
+            exportarJson();
+            return;
+        }
+        try {
+            SnapshotBinario.escribir(snapshotBinario, cache.values(), new UsuarioCodecBinario());
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar snapshot binario: " + e.getMessage(), e);
         }
-        return sanciones;
     }
 
-    private List<String> leerScrimsFavoritas(JsonObject data) {
-        List<String> favoritas = new ArrayList<>();
-        if (data.has("scrimsFavoritas") && data.get("scrimsFavoritas").isJsonArray()) {
-            for (JsonElement element : data.getAsJsonArray("scrimsFavoritas")) {
-                if (element != null && element.isJsonPrimitive()) {
-                    favoritas.add(element.getAsString());
-                }
+    private Map<String, Usuario> cargarDesdeDisco(){
+        if (snapshotBinario != null) {
+            if (snapshotBinario.exists()) {
+                return cargarSnapshotBinario();
             }
+            // Primera vez en modo binario: se importa el JSON y se genera el snapshot.
+            requierePersistencia = new File(ruta).exists();
         }
-        return favoritas;
-    }
-
-    private List<ScrimAlerta> leerAlertasScrim(JsonObject data) {
-        List<ScrimAlerta> alertas = new ArrayList<>();
-        if (data.has("alertasScrim") && data.get("alertasScrim").isJsonArray()) {
-            for (JsonElement element : data.getAsJsonArray("alertasScrim")) {
-                if (element == null || element.isJsonNull() || !element.isJsonObject()) {
-                    continue;
+        ArchivoAtomico.validar(new File(ruta));
+        try {
+            File f = new File(ruta);
+            if (!f.exists()) return new LinkedHashMap<>();
+            Map<String, Usuario> usuarios = new LinkedHashMap<>();
+            for (Usuario usuario : CargaParalela.leerObjetoJson(f, this::leerRegistro, arranque)) {
+                if (usuario.getId() == null || usuario.getId().isBlank()) {
+                    requierePersistencia = true;
                 }
-                JsonObject alertaJson = element.getAsJsonObject();
-                String juego = stringOrNull(alertaJson, "juego");
-                String region = stringOrNull(alertaJson, "region");
-                Integer rangoMin = alertaJson.has("rangoMin") && !alertaJson.get("rangoMin").isJsonNull()
-                        ? alertaJson.get("rangoMin").getAsInt() : null;
-                Integer rangoMax = alertaJson.has("rangoMax") && !alertaJson.get("rangoMax").isJsonNull()
-                        ? alertaJson.get("rangoMax").getAsInt() : null;
-                Integer latenciaMax = alertaJson.has("latenciaMax") && !alertaJson.get("latenciaMax").isJsonNull()
-                        ? alertaJson.get("latenciaMax").getAsInt() : null;
-                String formato = stringOrNull(alertaJson, "formato");
-                String modalidad = stringOrNull(alertaJson, "modalidad");
-                alertas.add(new ScrimAlerta(juego, region, rangoMin, rangoMax, latenciaMax, formato, modalidad));
+                usuarios.put(usuario.getEmail(), usuario);
             }
+            return usuarios;
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            throw new RuntimeException("Error al leer JSON: " + e.getMessage(), e);
         }
-        return alertas;
     }
 
-    private long calcularSiguienteId(Collection<Usuario> usuarios) {
-        long max = 0L;
-        for (Usuario usuario : usuarios) {
-            String id = usuario.getId();
-            if (id == null) {
-                continue;
-            }
-            try {
-                long value = Long.parseLong(id);
-                if (value > max) {
-                    max = value;
-                }
-            } catch (NumberFormatException ignored) {
-            }
+    // Decodifica el valor de un usuario dentro de usuarios.json; se invoca desde varios hilos
+    private Usuario leerRegistro(String json) {
+        try (JsonReader r = new JsonReader(new StringReader(json))) {
+            r.setLenient(true);
+            return codec.leer(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return max + 1;
     }
 
-    private void actualizarSecuencia(String id) {
-        if (id == null) {
-            return;
-        }
+    private Map<String, Usuario> cargarSnapshotBinario() {
         try {
-            long value = Long.parseLong(id);
-            if (value >= nextId) {
-                nextId = value + 1;
+            Map<String, Usuario> usuarios = new LinkedHashMap<>();
+            for (Usuario usuario : SnapshotBinario.leer(snapshotBinario, new UsuarioCodecBinario())) {
+                if (usuario.getId() == null || usuario.getId().isBlank()) {
+                    requierePersistencia = true;
+                }
+                usuarios.put(usuario.getEmail(), usuario);
             }
-        } catch (NumberFormatException ignored) {
+            arranque.marcar("snapshot binario");
+            return usuarios;
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer snapshot binario: " + e.getMessage(), e);
         }
     }
 
     private void asignarIdSiNecesario(Usuario usuario) {
         if (usuario.getId() == null || usuario.getId().isBlank()) {
-            usuario.asignarId(String.valueOf(nextId++));
+            usuario.asignarId(generadorIds.siguiente());
         } else {
-            actualizarSecuencia(usuario.getId());
+            generadorIds.reservar(usuario.getId());
         }
     }
 }
@@ -0,0 +1,41 @@
+package ar.edu.tpo.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Una página de un listado ordenado por id. {@code siguiente} es el cursor
+ * para pedir la página que sigue, o null si no quedan más elementos.
+ */
+public record Pagina<T>(List<T> elementos, String siguiente) {
+
+    public boolean esUltima() {
+        return siguiente == null;
+    }
+
+    /**
+     * Recorre {@code ordenados} (ya posicionados después del cursor) y junta
+     * hasta {@code limite} elementos que cumplan el filtro, sin materializar el resto.
+     */
+    static <T> Pagina<T> armar(Iterable<T> ordenados, Function<T, String> id, Predicate<? super T> filtro, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite de la página debe ser >= 1");
+        }
+        List<T> elementos = new ArrayList<>(Math.min(limite, 64));
+        boolean quedanMas = false;
+        for (T elemento : ordenados) {
+            if (!filtro.test(elemento)) {
+                continue;
+            }
+            if (elementos.size() == limite) {
+                quedanMas = true;
+                break;
+            }
+            elementos.add(elemento);
+        }
+        String siguiente = quedanMas ? id.apply(elementos.get(elementos.size() - 1)) : null;
+        return new Pagina<>(List.copyOf(elementos), siguiente);
+    }
+}
@@ -1,10 +1,112 @@
 package ar.edu.tpo.repository;
 
+import ar.edu.tpo.domain.EstadoScrim;
 import ar.edu.tpo.domain.Scrim;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public interface ScrimRepository {
+    int MAX_REINTENTOS = 5;
+
+    /**
+     * Publica una copia del scrim con la versión siguiente; el scrim recibido
+     * no cambia, salvo el id si no tenía. Si otro guardar del mismo scrim
+     * ocurrió después de leerlo, lanza {@link ConflictoDeVersionException}.
+     */
     void guardar(Scrim scrim);
+
+    /**
+     * Guarda varios scrims juntos. Las implementaciones pueden validar todas
+     * las versiones antes de aplicar y persistir el lote en una sola escritura.
+     */
+    default void guardarTodos(Collection<Scrim> scrims) {
+        scrims.forEach(this::guardar);
+    }
+
+    /**
+     * Las lecturas (por id, listados, búsquedas y páginas) devuelven los
+     * scrims publicados, compartidos con los demás lectores y sellados: sus
+     * modificadores lanzan {@link IllegalStateException}. Para cambiar un
+     * scrim se usa {@link #conScrim} o se guarda una {@link Scrim#copiar()}.
+     */
     Scrim buscarPorId(String id);
     List<Scrim> listar();
+
+    /**
+     * Hasta {@code limite} scrims que cumplen {@code filtro}, en orden de id y
+     * a partir del siguiente a {@code desdeId} (null para la primera página).
+     */
+    default Pagina<Scrim> listar(Predicate<Scrim> filtro, String desdeId, int limite) {
+        List<Scrim> ordenados = listar().stream()
+                .sorted((a, b) -> Ids.comparar(a.getId(), b.getId()))
+                .filter(s -> desdeId == null || Ids.comparar(s.getId(), desdeId) > 0)
+                .toList();
+        return Pagina.armar(ordenados, Scrim::getId, filtro, limite);
+    }
+
+    /**
+     * Lee, modifica y guarda un scrim sin que otra operación sobre el mismo
+     * scrim se intercale. {@code operacion} recibe una copia: si lanza una
+     * excepción no se guarda nada, y si al guardar hay conflicto de versión se
+     * vuelve a aplicar sobre el scrim actualizado.
+     */
+    default <T> T conScrim(String id, Function<Scrim, T> operacion) {
+        return conScrim(id, operacion, resultado -> true);
+    }
+
+    /**
+     * Igual que {@link #conScrim(String, Function)}, pero solo guarda si
+     * {@code modifico} acepta el resultado. Así una operación que no cambió
+     * nada (un suplente que ya estaba anotado) no persiste ni incrementa la
+     * versión.
+     */
+    default <T> T conScrim(String id, Function<Scrim, T> operacion, Predicate<? super T> modifico) {
+        for (int intento = 1; ; intento++) {
+            Scrim copia = buscarPorId(id).copiar();
+            T resultado = operacion.apply(copia);
+            if (!modifico.test(resultado)) {
+                return resultado;
+            }
+            try {
+                guardar(copia);
+                return resultado;
+            } catch (ConflictoDeVersionException e) {
+                if (intento == MAX_REINTENTOS) {
+                    throw e;
+                }
+                System.out.println("[persistencia] " + e.getMessage() + ". Reintentando.");
+            }
+        }
+    }
+
+    // Consultas por atributo. Las implementaciones con índices las resuelven
+    // en tiempo proporcional al resultado; estas versiones recorren listar().
+
+    default List<Scrim> buscarPorEstado(EstadoScrim estado) {
+        return listar().stream().filter(s -> s.getEstado().getNombre().equals(estado.getNombre())).toList();
+    }
+
+    default List<Scrim> buscarPorRegion(String region) {
+        return listar().stream().filter(s -> s.getRegion().equalsIgnoreCase(region.trim())).toList();
+    }
+
+    default List<Scrim> buscarPorFormato(String formato) {
+        return listar().stream().filter(s -> s.getFormato().equalsIgnoreCase(formato.trim())).toList();
+    }
+
+    default List<Scrim> buscarPorCreador(String email) {
+        return listar().stream().filter(s -> s.getEmailCreador().equalsIgnoreCase(email.trim())).toList();
+    }
+
+    /** Scrims que creó el email, en los que juega o en los que es suplente. */
+    default List<Scrim> buscarPorParticipante(String email) {
+        return listar().stream().filter(s -> s.participa(email)).toList();
+    }
+
+    /** Scrims que buscan jugadores en la región y cuyo rango admite el MMR dado. */
+    default List<Scrim> buscarAbiertasEn(String region, int mmr) {
+        return listar().stream().filter(s -> s.estaAbiertaPara(region, mmr)).toList();
+    }
 }
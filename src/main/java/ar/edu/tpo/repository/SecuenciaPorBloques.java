@@ -0,0 +1,129 @@
+package ar.edu.tpo.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de ids que reserva bloques de {@code tamanioBloque} ids en un
+ * archivo contador: el archivo guarda el primer id que todavía no se entregó
+ * a nadie. Dentro de un bloque los ids salen con un CAS sin locks; solo al
+ * agotarse se toma el lock y se persiste el tope del bloque siguiente, antes
+ * de entregar cualquier id de él. Así ningún reinicio repite un id aunque el
+ * proceso se corte: a lo sumo se saltea lo que quedaba del último bloque.
+ *
+ * Al cerrar se devuelve al archivo la parte no usada del bloque, para que un
+ * reinicio ordenado continúe sin huecos.
+ */
+public class SecuenciaPorBloques implements GeneradorIds {
+
+    public static final int TAMANIO_BLOQUE = 100;
+
+    private final File archivo;
+    private final int tamanioBloque;
+    private final boolean sinHistoria;
+    private final AtomicLong proximo;
+    // Primer id fuera del bloque reservado; solo crece y se persiste antes de publicarse
+    private volatile long tope;
+
+    public SecuenciaPorBloques(File archivo) {
+        this(archivo, TAMANIO_BLOQUE);
+    }
+
+    public SecuenciaPorBloques(File archivo, int tamanioBloque) {
+        if (tamanioBloque < 1) {
+            throw new IllegalArgumentException("El bloque de ids debe tener al menos un id");
+        }
+        this.archivo = archivo;
+        this.tamanioBloque = tamanioBloque;
+        this.sinHistoria = !archivo.exists();
+        long inicial = sinHistoria ? 1 : leer();
+        this.proximo = new AtomicLong(inicial);
+        this.tope = inicial;
+    }
+
+    /**
+     * Ruta del contador que acompaña a un archivo de datos: {@code scrims.json -> scrims.seq}.
+     */
+    public static File rutaPara(String rutaDatos) {
+        String base = rutaDatos.endsWith(".json") ? rutaDatos.substring(0, rutaDatos.length() - 5) : rutaDatos;
+        return new File(base + ".seq");
+    }
+
+    @Override
+    public String siguiente() {
+        while (true) {
+            long id = proximo.get();
+            if (id < tope) {
+                if (proximo.compareAndSet(id, id + 1)) {
+                    return String.valueOf(id);
+                }
+                continue;
+            }
+            synchronized (this) {
+                if (proximo.get() >= tope) {
+                    arrendar(proximo.get() + tamanioBloque);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void reservar(String idUsado) {
+        long valor;
+        try {
+            valor = Long.parseLong(idUsado);
+        } catch (NumberFormatException | NullPointerException e) {
+            return;
+        }
+        if (proximo.accumulateAndGet(valor + 1, Math::max) > tope) {
+            synchronized (this) {
+                if (proximo.get() > tope) {
+                    arrendar(proximo.get() + tamanioBloque);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean sinHistoria() {
+        return sinHistoria;
+    }
+
+    /**
+     * Persiste el próximo id sin usar en lugar del tope del bloque.
+     */
+    @Override
+    public synchronized void close() {
+        long siguiente = proximo.get();
+        if (siguiente < tope || !archivo.exists()) {
+            escribir(siguiente);
+            tope = siguiente;
+        }
+    }
+
+    // Con el monitor tomado
+    private void arrendar(long nuevoTope) {
+        escribir(nuevoTope);
+        tope = nuevoTope;
+    }
+
+    private long leer() {
+        ArchivoAtomico.validar(archivo);
+        try {
+            return Long.parseLong(Files.readString(archivo.toPath(), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Contador de ids ilegible en " + archivo.getPath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void escribir(long valor) {
+        try {
+            ArchivoAtomico.escribir(archivo, w -> w.write(Long.toString(valor)));
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar contador de ids " + archivo.getPath() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package ar.edu.tpo.repository;
+
+import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.repository.json.ScrimJsonAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Guarda cada scrim en su propio archivo ({@code <directorio>/<id>.json}).
+ * Un guardar reescribe solo el archivo de ese scrim, así que el costo de
+ * escritura no depende de cuántos scrims haya; los finalizados quedan en
+ * disco sin tocarse hasta que se archivan. Al arrancar los archivos se leen
+ * en paralelo.
+ */
+public class ShardedJsonScrimRepository extends AbstractScrimRepository {
+
+    private static final String EXTENSION = ".json";
+    private static final String SUFIJO_CHECKSUM = ".crc";
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9_-]+");
+    // Scrims terminados que salieron del directorio (ver archivarTerminados)
+    private static final String ARCHIVO = "terminados.archivo";
+    private static final String SECUENCIA = "ids.seq";
+
+    private final File directorio;
+    private final Gson gson;
+
+    public ShardedJsonScrimRepository(String directorio) {
+        this(directorio, new SecuenciaPorBloques(new File(directorio, SECUENCIA)));
+    }
+
+    public ShardedJsonScrimRepository(String directorio, GeneradorIds generadorIds) {
+        super("scrims", generadorIds);
+        this.directorio = new File(directorio);
+        this.gson = new GsonBuilder()
+                .setPrettyPrinting()
+                .registerTypeAdapter(Scrim.class, new ScrimJsonAdapter(diccionario))
+                .create();
+        List<String> ids = cargarShards();
+        arranque.marcar("shards");
+        abrirArchivo(new File(this.directorio, ARCHIVO));
+        terminarCarga(ids);
+    }
+
+    /**
+     * Copia al directorio los scrims de otro repositorio, por ejemplo un
+     * scrims.json monolítico. Solo tiene efecto si todavía no hay shards.
+     * @return cantidad de scrims importados
+     */
+    public synchronized int importarSiVacio(ScrimRepository origen) {
+        if (!cache.isEmpty()) {
+            return 0;
+        }
+        List<Scrim> scrims = origen.listar();
+        for (Scrim scrim : scrims) {
+            guardar(scrim);
+        }
+        flush();
+        return scrims.size();
+    }
+
+    @Override
+    protected void persistirCambio(Scrim scrim) {
+        escribirShard(scrim);
+    }
+
+    @Override
+    protected void persistirArchivados(Collection<String> ids) {
+        for (String id : ids) {
+            sucios.remove(id);
+            File shard = archivoDe(id);
+            if (shard.exists() && !shard.delete()) {
+                System.err.println("[archivo] No se pudo borrar " + shard.getPath() + " (queda duplicado en el archivo)");
+            }
+            new File(shard.getPath() + SUFIJO_CHECKSUM).delete();
+        }
+    }
+
+    @Override
+    protected void volcarSucios() {
+        for (Iterator<String> it = sucios.iterator(); it.hasNext(); ) {
+            escribirShard(cache.get(it.next()));
+            it.remove();
+        }
+    }
+
+    private void escribirShard(Scrim scrim) {
+        File f = archivoDe(scrim.getId());
+        try {
+            ArchivoAtomico.escribir(f, w -> gson.toJson(scrim, Scrim.class, w));
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar scrim " + scrim.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private File archivoDe(String id) {
+        if (!ID_VALIDO.matcher(id).matches()) {
+            throw new IllegalArgumentException("ID de scrim no válido como nombre de archivo: " + id);
+        }
+        return new File(directorio, id + EXTENSION);
+    }
+
+    /**
+     * Lee todos los shards en paralelo y los agrega a la caché ordenados por id.
+     * Un shard ilegible se informa y se omite, pero su id sigue reservado para
+     * que la secuencia no lo reutilice y pise el archivo.
+     * @return ids de todos los shards encontrados
+     */
+    private List<String> cargarShards() {
+        recuperarShardsNuevos();
+        File[] archivos = directorio.listFiles((dir, nombre) ->
+                nombre.endsWith(EXTENSION) && ID_VALIDO.matcher(idDe(nombre)).matches());
+        if (archivos == null || archivos.length == 0) {
+            return List.of();
+        }
+        Arrays.sort(archivos, Comparator.comparing((File f) -> idDe(f.getName()), Ids::comparar));
+
+        int hilos = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), archivos.length));
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread t = new Thread(r, "CargaScrims");
+            t.setDaemon(true);
+            return t;
+        });
+        List<String> ids = new ArrayList<>(archivos.length);
+        try {
+            List<Future<Scrim>> lecturas = new ArrayList<>(archivos.length);
+            for (File archivo : archivos) {
+                lecturas.add(pool.submit(() -> leerShard(archivo)));
+            }
+            for (int i = 0; i < archivos.length; i++) {
+                String id = idDe(archivos[i].getName());
+                ids.add(id);
+                try {
+                    Scrim scrim = lecturas.get(i).get();
+                    if (!id.equals(scrim.getId())) {
+                        throw new IllegalStateException("el archivo contiene el scrim " + scrim.getId());
+                    }
+                    cache.put(id, scrim);
+                } catch (ExecutionException | RuntimeException e) {
+                    Throwable causa = e instanceof ExecutionException ? e.getCause() : e;
+                    System.err.println("[persistencia] Se omite " + archivos[i].getPath() + ": " + causa.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Carga de scrims interrumpida", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return ids;
+    }
+
+    /**
+     * Un corte durante la primera escritura de un shard puede dejar
+     * {@code <id>.json.crc} y {@code <id>.json.tmp} sin {@code <id>.json}, que
+     * el listado de shards no vería. Si el temporal coincide con el checksum,
+     * {@link ArchivoAtomico#validar} completa el renombre; un {@code .tmp} sin
+     * {@code .crc} nunca llegó a publicarse y se sobrescribe en el próximo guardar.
+     */
+    private void recuperarShardsNuevos() {
+        File[] checksums = directorio.listFiles((dir, nombre) -> nombre.endsWith(EXTENSION + SUFIJO_CHECKSUM));
+        if (checksums == null) {
+            return;
+        }
+        for (File checksum : checksums) {
+            String nombre = checksum.getName();
+            File shard = new File(directorio, nombre.substring(0, nombre.length() - SUFIJO_CHECKSUM.length()));
+            if (shard.exists() || !ID_VALIDO.matcher(idDe(shard.getName())).matches()) {
+                continue;
+            }
+            try {
+                ArchivoAtomico.validar(shard);
+            } catch (RuntimeException e) {
+                System.err.println("[persistencia] No se pudo recuperar " + shard.getPath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Scrim leerShard(File archivo) throws IOException {
+        ArchivoAtomico.validar(archivo);
+        try (Reader r = new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8)) {
+            Scrim scrim = gson.fromJson(r, Scrim.class);
+            if (scrim == null) {
+                throw new IOException("archivo vacío");
+            }
+            return scrim;
+        }
+    }
+
+    private static String idDe(String nombreArchivo) {
+        return nombreArchivo.substring(0, nombreArchivo.length() - EXTENSION.length());
+    }
+}
@@ -2,10 +2,33 @@ package ar.edu.tpo.repository;
 
 import ar.edu.tpo.domain.Usuario;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface UsuarioRepository {
     void guardar(Usuario u);
     Usuario buscar(String email);
     Collection<Usuario> listar();
     void actualizar(Usuario u);
+
+    /**
+     * Actualiza varios usuarios juntos. Las implementaciones pueden persistirlos
+     * en una sola escritura.
+     */
+    default void actualizarTodos(Collection<Usuario> usuarios) {
+        usuarios.forEach(this::actualizar);
+    }
+
+    /**
+     * Hasta {@code limite} usuarios que cumplen {@code filtro}, en orden de id y
+     * a partir del siguiente a {@code desdeId} (null para la primera página).
+     */
+    default Pagina<Usuario> listar(Predicate<Usuario> filtro, String desdeId, int limite) {
+        List<Usuario> ordenados = listar().stream()
+                .filter(u -> u.getId() != null)
+                .sorted((a, b) -> Ids.comparar(a.getId(), b.getId()))
+                .filter(u -> desdeId == null || Ids.comparar(u.getId(), desdeId) > 0)
+                .toList();
+        return Pagina.armar(ordenados, Usuario::getId, filtro, limite);
+    }
 }
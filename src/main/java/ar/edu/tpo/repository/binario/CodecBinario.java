@@ -0,0 +1,13 @@
+package ar.edu.tpo.repository.binario;
+
+import java.io.IOException;
+
+/**
+ * Traduce una entidad a un registro del snapshot binario y viceversa.
+ * {@link #leer} debe consumir los campos en el mismo orden que {@link #escribir}.
+ */
+public interface CodecBinario<T> {
+    void escribir(EscritorBinario out, T valor) throws IOException;
+
+    T leer(LectorBinario in);
+}
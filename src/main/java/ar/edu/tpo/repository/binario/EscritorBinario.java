@@ -0,0 +1,89 @@
+package ar.edu.tpo.repository.binario;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe los campos de un registro. Los textos no se escriben en el registro
+ * sino como índice dentro del diccionario de strings del snapshot.
+ */
+public class EscritorBinario {
+
+    static final int TEXTO_NULO = -1;
+    static final long FECHA_NULA = Long.MIN_VALUE;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> diccionario;
+    private final List<String> textos;
+
+    EscritorBinario(DataOutputStream out, Map<String, Integer> diccionario, List<String> textos) {
+        this.out = out;
+        this.diccionario = diccionario;
+        this.textos = textos;
+    }
+
+    public void entero(int valor) throws IOException {
+        out.writeInt(valor);
+    }
+
+    public void enteroONulo(Integer valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeInt(valor);
+        }
+    }
+
+    public void decimal(double valor) throws IOException {
+        out.writeDouble(valor);
+    }
+
+    public void decimalONulo(Double valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeDouble(valor);
+        }
+    }
+
+    public void largo(long valor) throws IOException {
+        out.writeLong(valor);
+    }
+
+    public void booleano(boolean valor) throws IOException {
+        out.writeBoolean(valor);
+    }
+
+    public void texto(String valor) throws IOException {
+        if (valor == null) {
+            out.writeInt(TEXTO_NULO);
+            return;
+        }
+        Integer indice = diccionario.get(valor);
+        if (indice == null) {
+            indice = textos.size();
+            textos.add(valor);
+            diccionario.put(valor, indice);
+        }
+        out.writeInt(indice);
+    }
+
+    public void textos(Collection<String> valores) throws IOException {
+        out.writeInt(valores.size());
+        for (String valor : valores) {
+            texto(valor);
+        }
+    }
+
+    public void fecha(LocalDateTime valor) throws IOException {
+        if (valor == null) {
+            out.writeLong(FECHA_NULA);
+            return;
+        }
+        out.writeLong(valor.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(valor.getNano());
+    }
+}
@@ -0,0 +1,84 @@
+package ar.edu.tpo.repository.binario;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee los campos de un registro en el mismo orden en que los escribió
+ * {@link EscritorBinario}, resolviendo los textos contra el diccionario.
+ */
+public class LectorBinario {
+
+    private final ByteBuffer buffer;
+    private final String[] diccionario;
+    private final int formato;
+
+    LectorBinario(ByteBuffer buffer, String[] diccionario, int formato) {
+        this.buffer = buffer;
+        this.diccionario = diccionario;
+        this.formato = formato;
+    }
+
+    /**
+     * Versión de formato del snapshot que se está leyendo, para que los codecs
+     * salteen campos que los archivos anteriores no tienen.
+     */
+    public int formato() {
+        return formato;
+    }
+
+    public int entero() {
+        return buffer.getInt();
+    }
+
+    public Integer enteroONulo() {
+        return booleano() ? buffer.getInt() : null;
+    }
+
+    public long largo() {
+        return buffer.getLong();
+    }
+
+    public double decimal() {
+        return buffer.getDouble();
+    }
+
+    public Double decimalONulo() {
+        return booleano() ? buffer.getDouble() : null;
+    }
+
+    public boolean booleano() {
+        return buffer.get() != 0;
+    }
+
+    public String texto() {
+        int indice = buffer.getInt();
+        if (indice == EscritorBinario.TEXTO_NULO) {
+            return null;
+        }
+        if (indice < 0 || indice >= diccionario.length) {
+            throw new IllegalStateException("Índice de diccionario fuera de rango: " + indice);
+        }
+        return diccionario[indice];
+    }
+
+    public List<String> textos() {
+        int cantidad = buffer.getInt();
+        List<String> valores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            valores.add(texto());
+        }
+        return valores;
+    }
+
+    public LocalDateTime fecha() {
+        long segundos = buffer.getLong();
+        if (segundos == EscritorBinario.FECHA_NULA) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(segundos, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,131 @@
+package ar.edu.tpo.repository.binario;
+
+import ar.edu.tpo.domain.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Registro binario de un Scrim. Guarda los mismos datos que ScrimJsonAdapter
+ * y rehidrata con {@link Scrim#restaurar}. La versión va al final del registro
+ * y solo existe desde el formato 2 del snapshot. Como el adaptador JSON, pasa
+ * los emails de jugadores por el {@link DiccionarioJugadores} del repositorio.
+ */
+public class ScrimCodecBinario implements CodecBinario<Scrim> {
+
+    private final DiccionarioJugadores diccionario;
+
+    public ScrimCodecBinario(DiccionarioJugadores diccionario) {
+        this.diccionario = Objects.requireNonNull(diccionario, "diccionario requerido");
+    }
+
+    @Override
+    public void escribir(EscritorBinario out, Scrim scrim) throws IOException {
+        out.texto(scrim.getId());
+        out.texto(scrim.getJuego());
+        out.texto(scrim.getEmailCreador());
+        out.entero(scrim.getRangoMin());
+        out.entero(scrim.getRangoMax());
+        out.entero(scrim.getCupo());
+        out.texto(scrim.getFormato());
+        out.texto(scrim.getRegion());
+        out.entero(scrim.getLatenciaMaxMs());
+        out.texto(scrim.getModalidad());
+        out.texto(scrim.getEstado().getNombre());
+        out.fecha(scrim.getInicio());
+        out.fecha(scrim.getFin());
+
+        escribirEquipo(out, scrim.getEquipo1());
+        escribirEquipo(out, scrim.getEquipo2());
+        Map<String, Boolean> confirmaciones = scrim.getConfirmacionesEquipos();
+        out.entero(confirmaciones.size());
+        for (Map.Entry<String, Boolean> entry : confirmaciones.entrySet()) {
+            out.texto(entry.getKey());
+            out.booleano(entry.getValue());
+        }
+
+        out.entero(scrim.getEstadisticas().size());
+        for (Estadistica estadistica : scrim.getEstadisticas()) {
+            out.texto(estadistica.getEmailJugador());
+            out.entero(estadistica.getKda().getKills());
+            out.entero(estadistica.getKda().getAssists());
+            out.entero(estadistica.getKda().getDeaths());
+            out.decimal(estadistica.getRating());
+            out.fecha(estadistica.getFechaCarga());
+        }
+
+        out.entero(scrim.getListaEspera().size());
+        for (WaitlistEntry entry : scrim.getListaEspera()) {
+            out.texto(entry.emailJugador());
+            out.fecha(entry.fechaSolicitud());
+            out.entero(entry.orden());
+        }
+
+        out.booleano(scrim.getResultado() != null);
+        if (scrim.getResultado() != null) {
+            out.texto(scrim.getResultado().getGanadorEmail());
+        }
+        out.largo(scrim.getVersion());
+    }
+
+    @Override
+    public Scrim leer(LectorBinario in) {
+        Scrim scrim = Scrim.restaurar(
+                in.texto(),
+                in.texto(),
+                diccionario.compartido(in.texto()),
+                in.entero(),
+                in.entero(),
+                in.entero(),
+                in.texto(),
+                in.texto(),
+                in.entero(),
+                in.texto(),
+                EstadoScrim.desdeNombre(in.texto()),
+                in.fecha(),
+                in.fecha()
+        );
+
+        for (String email : in.textos()) {
+            scrim.getEquipo1().agregarJugador(diccionario.compartido(email));
+        }
+        for (String email : in.textos()) {
+            scrim.getEquipo2().agregarJugador(diccionario.compartido(email));
+        }
+        int confirmaciones = in.entero();
+        for (int i = 0; i < confirmaciones; i++) {
+            scrim.establecerConfirmacionEquipo(in.texto(), in.booleano());
+        }
+
+        int estadisticas = in.entero();
+        for (int i = 0; i < estadisticas; i++) {
+            String email = diccionario.compartido(in.texto());
+            KDA kda = new KDA(in.entero(), in.entero(), in.entero());
+            scrim.agregarEstadisticaDirecta(new Estadistica(email, kda, in.decimal(), in.fecha()));
+        }
+
+        int enEspera = in.entero();
+        for (int i = 0; i < enEspera; i++) {
+            scrim.agregarWaitlistEntryDirecto(new WaitlistEntry(diccionario.compartido(in.texto()), in.fecha(), in.entero()));
+        }
+
+        if (in.booleano()) {
+            scrim.setResultado(new Resultado(in.texto()));
+        }
+        if (in.formato() >= 2) {
+            scrim.restaurarVersion(in.largo());
+        }
+
+        scrim.getEstado().recalcularEstado(scrim);
+        return scrim;
+    }
+
+    // Mismo formato que EscritorBinario.textos, sin armar la colección
+    private static void escribirEquipo(EscritorBinario out, Equipo equipo) throws IOException {
+        out.entero(equipo.getCantidadJugadores());
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            out.texto(equipo.getJugador(i));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ar.edu.tpo.repository.binario;
+
+import ar.edu.tpo.repository.ArchivoAtomico;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Snapshot binario de una colección de entidades, pensado para arrancar sin
+ * interpretar JSON. Se lee completo a un buffer en memoria con una sola
+ * lectura del canal. No se mapea: un mapeo vivo impide en Windows reemplazar
+ * el archivo con el renombrado atómico del próximo snapshot hasta que lo
+ * libere el GC.
+ *
+ * <pre>
+ * [MAGIA int][VERSION int]
+ * registros:   [longitud int][bytes]...            (uno por entidad)
+ * diccionario: [cantidad int]([longitud int][UTF-8])...
+ * índice:      [cantidad int][offset int]...       (inicio de cada registro)
+ * pie:         [offset diccionario long][offset índice long][cantidad int][MAGIA int]
+ * </pre>
+ *
+ * El pie va al final para poder escribir todo en una sola pasada. El archivo
+ * se escribe con {@link ArchivoAtomico}, así que también lleva su {@code .crc}.
+ */
+public final class SnapshotBinario {
+
+    private static final int MAGIA = 0x45534E50; // "ESNP"
+    // 2: los scrims llevan versión. Se siguen leyendo los archivos de versión 1.
+    private static final int VERSION = 2;
+    private static final int TAMANIO_PIE = 8 + 8 + 4 + 4;
+    // Por debajo de esta cantidad de registros se decodifica en un solo hilo
+    private static final int MINIMO_PARALELO = 1024;
+
+    private SnapshotBinario() {
+    }
+
+    /**
+     * Ruta del snapshot binario que acompaña a un archivo JSON: {@code scrims.json -> scrims.bin}.
+     */
+    public static File rutaPara(String rutaJson) {
+        String base = rutaJson.endsWith(".json") ? rutaJson.substring(0, rutaJson.length() - 5) : rutaJson;
+        return new File(base + ".bin");
+    }
+
+    public static <T> void escribir(File destino, Collection<T> valores, CodecBinario<T> codec) throws IOException {
+        ArchivoAtomico.escribirBinario(destino, salida -> {
+            DataOutputStream out = new DataOutputStream(salida);
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+
+            Map<String, Integer> diccionario = new HashMap<>();
+            List<String> textos = new ArrayList<>();
+            ByteArrayOutputStream registro = new ByteArrayOutputStream(1024);
+            EscritorBinario escritor = new EscritorBinario(new DataOutputStream(registro), diccionario, textos);
+            int[] offsets = new int[valores.size()];
+            int i = 0;
+            for (T valor : valores) {
+                registro.reset();
+                codec.escribir(escritor, valor);
+                offsets[i++] = verificarTamanio(out.size());
+                out.writeInt(registro.size());
+                registro.writeTo(out);
+            }
+
+            long offsetDiccionario = verificarTamanio(out.size());
+            out.writeInt(textos.size());
+            for (String texto : textos) {
+                byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            long offsetIndice = verificarTamanio(out.size());
+            out.writeInt(offsets.length);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+
+            out.writeLong(offsetDiccionario);
+            out.writeLong(offsetIndice);
+            out.writeInt(offsets.length);
+            out.writeInt(MAGIA);
+            verificarTamanio(out.size());
+            out.flush();
+        });
+    }
+
+    /**
+     * Valida el checksum, lee el archivo y decodifica todos los registros en
+     * orden (en el pool fork-join común cuando son muchos).
+     * @throws IllegalStateException si el archivo no es un snapshot válido
+     */
+    public static <T> List<T> leer(File origen, CodecBinario<T> codec) throws IOException {
+        ArchivoAtomico.validar(origen);
+        try (FileChannel canal = FileChannel.open(origen.toPath(), StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < 8 + TAMANIO_PIE) {
+                throw new IllegalStateException("Snapshot binario truncado: " + origen.getPath());
+            }
+            ByteBuffer datos = ByteBuffer.allocate((int) tamanio);
+            while (datos.hasRemaining()) {
+                if (canal.read(datos) < 0) {
+                    throw new IllegalStateException("Snapshot binario truncado: " + origen.getPath());
+                }
+            }
+            datos.flip();
+            if (datos.getInt(0) != MAGIA || datos.getInt((int) tamanio - 4) != MAGIA) {
+                throw new IllegalStateException("No es un snapshot binario: " + origen.getPath());
+            }
+            int formato = datos.getInt(4);
+            if (formato < 1 || formato > VERSION) {
+                throw new IllegalStateException("Versión de snapshot binario no soportada: " + formato);
+            }
+            int pie = (int) tamanio - TAMANIO_PIE;
+            int offsetDiccionario = (int) datos.getLong(pie);
+            int offsetIndice = (int) datos.getLong(pie + 8);
+            int cantidad = datos.getInt(pie + 16);
+
+            String[] diccionario = leerDiccionario(datos, offsetDiccionario);
+
+            if (datos.getInt(offsetIndice) != cantidad) {
+                throw new IllegalStateException("Índice inconsistente en " + origen.getPath());
+            }
+            // Cada registro se ubica por el índice con lecturas absolutas, así
+            // que los bloques se pueden decodificar en paralelo sin compartir posición.
+            IntStream registros = IntStream.range(0, cantidad);
+            if (cantidad >= MINIMO_PARALELO) {
+                registros = registros.parallel();
+            }
+            return registros.mapToObj(i -> {
+                int offset = datos.getInt(offsetIndice + 4 + 4 * i);
+                int longitud = datos.getInt(offset);
+                ByteBuffer registro = datos.slice(offset + 4, longitud);
+                return codec.leer(new LectorBinario(registro, diccionario, formato));
+            }).toList();
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IllegalStateException("Snapshot binario corrupto: " + origen.getPath(), e);
+        }
+    }
+
+    private static String[] leerDiccionario(ByteBuffer datos, int offset) {
+        ByteBuffer entrada = datos.duplicate().position(offset);
+        String[] textos = new String[entrada.getInt()];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < textos.length; i++) {
+            int longitud = entrada.getInt();
+            if (longitud > bytes.length) {
+                bytes = new byte[longitud];
+            }
+            entrada.get(bytes, 0, longitud);
+            textos[i] = new String(bytes, 0, longitud, StandardCharsets.UTF_8);
+        }
+        return textos;
+    }
+
+    private static int verificarTamanio(int escritos) {
+        if (escritos == Integer.MAX_VALUE) {
+            throw new IllegalStateException("El snapshot binario supera los 2 GB");
+        }
+        return escritos;
+    }
+}
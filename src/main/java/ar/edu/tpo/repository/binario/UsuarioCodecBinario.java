@@ -0,0 +1,112 @@
+package ar.edu.tpo.repository.binario;
+
+import ar.edu.tpo.domain.Jugador;
+import ar.edu.tpo.domain.Organizador;
+import ar.edu.tpo.domain.SancionActiva;
+import ar.edu.tpo.domain.SancionHistorica;
+import ar.edu.tpo.domain.Usuario;
+import ar.edu.tpo.domain.alerta.ScrimAlerta;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro binario de un Jugador u Organizador, con los mismos datos que
+ * UsuarioJsonCodec. Los campos de Jugador van después de los comunes.
+ */
+public class UsuarioCodecBinario implements CodecBinario<Usuario> {
+
+    private static final String TIPO_JUGADOR = "Jugador";
+
+    @Override
+    public void escribir(EscritorBinario out, Usuario usuario) throws IOException {
+        out.texto(usuario.getTipo());
+        out.texto(usuario.getId());
+        out.texto(usuario.getNombre());
+        out.texto(usuario.getEmail());
+        out.texto(usuario.getPasswordHash());
+        out.entero(usuario.getStrikeCount());
+        out.booleano(usuario.estaSuspendido());
+
+        List<SancionActiva> sanciones = usuario.getSancionesActivasSinDepurar();
+        out.entero(sanciones.size());
+        for (SancionActiva sancion : sanciones) {
+            out.texto(sancion.getMotivo());
+            out.fecha(sancion.getExpiraEn());
+        }
+        List<SancionHistorica> historicas = usuario.getSancionesHistoricas();
+        out.entero(historicas.size());
+        for (SancionHistorica sancion : historicas) {
+            out.texto(sancion.getMotivo());
+            out.fecha(sancion.getExpiraEn());
+            out.fecha(sancion.getLevantadaEn());
+        }
+
+        if (!(usuario instanceof Jugador jugador)) {
+            return;
+        }
+        out.entero(jugador.getMmr());
+        out.entero(jugador.getLatenciaMs());
+        out.decimalONulo(jugador.getKdaHistorico());
+        out.texto(jugador.getRangoNombre());
+        out.texto(jugador.getRolNombre());
+        out.texto(jugador.getRegionNombre());
+        out.textos(jugador.getScrimsFavoritas());
+        out.entero(jugador.getAlertasScrim().size());
+        for (ScrimAlerta alerta : jugador.getAlertasScrim()) {
+            out.texto(alerta.getJuego());
+            out.texto(alerta.getRegion());
+            out.enteroONulo(alerta.getRangoMin());
+            out.enteroONulo(alerta.getRangoMax());
+            out.enteroONulo(alerta.getLatenciaMax());
+            out.texto(alerta.getFormato());
+            out.texto(alerta.getModalidad());
+        }
+    }
+
+    @Override
+    public Usuario leer(LectorBinario in) {
+        String tipo = in.texto();
+        String id = in.texto();
+        String nombre = in.texto();
+        String email = in.texto();
+        String password = in.texto();
+        int strikes = in.entero();
+        boolean suspendido = in.booleano();
+
+        int cantidad = in.entero();
+        List<SancionActiva> sanciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            sanciones.add(new SancionActiva(in.texto(), in.fecha()));
+        }
+        cantidad = in.entero();
+        List<SancionHistorica> historicas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            historicas.add(new SancionHistorica(in.texto(), in.fecha(), in.fecha()));
+        }
+
+        if (!TIPO_JUGADOR.equals(tipo)) {
+            return new Organizador(id, nombre, email, password, sanciones, historicas, strikes, suspendido);
+        }
+        int mmr = in.entero();
+        int latencia = in.entero();
+        Double kda = in.decimalONulo();
+        String rango = in.texto();
+        String rol = in.texto();
+        String region = in.texto();
+        List<String> favoritas = in.textos();
+        cantidad = in.entero();
+        List<ScrimAlerta> alertas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            alertas.add(new ScrimAlerta(in.texto(), in.texto(), in.enteroONulo(), in.enteroONulo(),
+                    in.enteroONulo(), in.texto(), in.texto()));
+        }
+        Jugador jugador = new Jugador(id, nombre, email, password, mmr, latencia, rango, rol, region,
+                sanciones, historicas, strikes, suspendido, favoritas, alertas);
+        if (kda != null) {
+            jugador.setKdaHistorico(kda);
+        }
+        return jugador;
+    }
+}
@@ -0,0 +1,149 @@
+package ar.edu.tpo.repository.journal;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registro append-only de líneas de texto (un registro compacto por línea).
+ * Se usa junto a un snapshot: cada cambio se agrega al final del archivo y
+ * un checkpoint periódico reescribe el snapshot y trunca el journal.
+ *
+ * Un registro agregado queda en disco (fsync) antes de que {@link #agregar}
+ * retorne, así que sobrevive también a un corte de energía.
+ */
+public class Journal implements Closeable {
+
+    private final File archivo;
+    private FileOutputStream salida;
+    private Writer writer;
+    private int registrosPendientes;
+
+    public Journal(String ruta) {
+        this.archivo = new File(ruta);
+    }
+
+    /**
+     * Lee los registros completos del journal. Una última línea sin salto de
+     * línea corresponde a una escritura interrumpida: se descarta y se trunca
+     * el archivo hasta el último registro completo, para que el próximo
+     * {@link #agregar} no quede pegado a ella.
+     */
+    public synchronized List<String> leer() {
+        List<String> registros = new ArrayList<>();
+        if (!archivo.exists()) {
+            return registros;
+        }
+        try {
+            byte[] datos = Files.readAllBytes(archivo.toPath());
+            // En UTF-8 el byte '\n' solo aparece como salto de línea
+            int completos = datos.length;
+            while (completos > 0 && datos[completos - 1] != '\n') {
+                completos--;
+            }
+            String contenido = new String(datos, 0, completos, StandardCharsets.UTF_8);
+            int inicio = 0;
+            int fin;
+            while ((fin = contenido.indexOf('\n', inicio)) >= 0) {
+                String linea = contenido.substring(inicio, fin).trim();
+                if (!linea.isEmpty()) {
+                    registros.add(linea);
+                }
+                inicio = fin + 1;
+            }
+            if (completos < datos.length) {
+                System.err.println("[journal] Se descarta un registro incompleto al final de " + archivo.getPath());
+                try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.WRITE)) {
+                    canal.truncate(completos);
+                    canal.force(true);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer journal: " + e.getMessage(), e);
+        }
+        registrosPendientes = registros.size();
+        return registros;
+    }
+
+    public void agregar(String registro) {
+        agregarTodos(List.of(registro));
+    }
+
+    /**
+     * Agrega los registros en orden con una sola escritura a disco (un fsync
+     * para todo el lote).
+     */
+    public synchronized void agregarTodos(Collection<String> registros) {
+        for (String registro : registros) {
+            if (registro.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("El registro del journal no puede contener saltos de línea");
+            }
+        }
+        if (registros.isEmpty()) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                abrir();
+            }
+            for (String registro : registros) {
+                writer.write(registro);
+                writer.write('\n');
+            }
+            writer.flush();
+            salida.getChannel().force(false);
+            registrosPendientes += registros.size();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir journal: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Vacía el journal. Debe invocarse solo después de haber persistido un
+     * snapshot que contenga todos los registros agregados hasta el momento.
+     */
+    public synchronized void truncar() {
+        try {
+            close();
+            File parent = archivo.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            new FileOutputStream(archivo, false).close();
+            registrosPendientes = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Error al truncar journal: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized int getRegistrosPendientes() {
+        return registrosPendientes;
+    }
+
+    public String getRuta() {
+        return archivo.getPath();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            salida = null;
+        }
+    }
+
+    private void abrir() throws IOException {
+        File parent = archivo.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        salida = new FileOutputStream(archivo, true);
+        writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    }
+}
@@ -2,168 +2,237 @@ package ar.edu.tpo.repository.json;
 
 import ar.edu.tpo.domain.*;
 import ar.edu.tpo.service.ArgentinaTimeZone;
-import com.google.gson.*;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Adaptador Gson externo para serializar y deserializar Scrim.
  * Permite mantener la entidad enfocada en reglas de negocio.
+ *
+ * Trabaja en streaming (JsonWriter/JsonReader) sin armar un árbol por scrim
+ * y reconstruye la entidad con {@link Scrim#restaurar}, sin reflexión. Los
+ * emails de jugadores que lee pasan por el {@link DiccionarioJugadores} del
+ * repositorio, así los scrims cargados comparten cada email.
  */
-public class ScrimJsonAdapter implements JsonSerializer<Scrim>, JsonDeserializer<Scrim> {
+public class ScrimJsonAdapter extends TypeAdapter<Scrim> {
+
+    private final DiccionarioJugadores diccionario;
+
+    public ScrimJsonAdapter() {
+        this(new DiccionarioJugadores());
+    }
+
+    public ScrimJsonAdapter(DiccionarioJugadores diccionario) {
+        this.diccionario = Objects.requireNonNull(diccionario, "diccionario requerido");
+    }
 
     @Override
-    public JsonElement serialize(Scrim src, Type typeOfSrc, JsonSerializationContext context) {
-        JsonObject o = new JsonObject();
-        o.addProperty("id", src.getId());
-        o.addProperty("juego", src.getJuego());
-        o.addProperty("emailCreador", src.getEmailCreador());
-        o.addProperty("rangoMin", src.getRangoMin());
-        o.addProperty("rangoMax", src.getRangoMax());
-        o.addProperty("cupo", src.getCupo());
-        o.addProperty("formato", src.getFormato());
-        o.addProperty("region", src.getRegion());
-        o.addProperty("latenciaMaxMs", src.getLatenciaMaxMs());
-        o.addProperty("modalidad", src.getModalidad());
-        o.addProperty("estado", src.getEstado().getNombre());
+    public void write(JsonWriter out, Scrim src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (src.getId() != null) {
+            out.name("id").value(src.getId());
+        }
+        out.name("version").value(src.getVersion());
+        out.name("juego").value(src.getJuego());
+        out.name("emailCreador").value(src.getEmailCreador());
+        out.name("rangoMin").value(src.getRangoMin());
+        out.name("rangoMax").value(src.getRangoMax());
+        out.name("cupo").value(src.getCupo());
+        out.name("formato").value(src.getFormato());
+        out.name("region").value(src.getRegion());
+        out.name("latenciaMaxMs").value(src.getLatenciaMaxMs());
+        out.name("modalidad").value(src.getModalidad());
+        out.name("estado").value(src.getEstado().getNombre());
         if (src.getInicio() != null) {
-            o.addProperty("inicio", src.getInicio().toString());
+            out.name("inicio").value(src.getInicio().toString());
         }
         if (src.getFin() != null) {
-            o.addProperty("fin", src.getFin().toString());
+            out.name("fin").value(src.getFin().toString());
         }
 
-        o.add("equipo1", serializarEquipo(src.getEquipo1()));
-        o.add("equipo2", serializarEquipo(src.getEquipo2()));
+        out.name("equipo1");
+        escribirEquipo(out, src.getEquipo1());
+        out.name("equipo2");
+        escribirEquipo(out, src.getEquipo2());
 
-        JsonArray jugadores = new JsonArray();
-        for (String jugador : src.getJugadores()) {
-            jugadores.add(jugador);
-        }
-        o.add("jugadores", jugadores);
+        // Campo legacy: los integrantes de ambos equipos, sin repetir
+        out.name("jugadores").beginArray();
+        escribirJugadores(out, src.getEquipo1(), null);
+        escribirJugadores(out, src.getEquipo2(), src.getEquipo1());
+        out.endArray();
 
-        JsonObject confEquipos = new JsonObject();
-        for (Map.Entry<String, Boolean> entry : src.getConfirmacionesEquipos().entrySet()) {
-            confEquipos.addProperty(entry.getKey(), entry.getValue());
-        }
-        o.add("confirmacionesEquipos", confEquipos);
+        out.name("confirmacionesEquipos");
+        escribirConfirmaciones(out, src.getConfirmacionesEquipos());
+        out.name("confirmaciones");
+        escribirConfirmaciones(out, src.getConfirmaciones());
 
-        JsonObject confJugadores = new JsonObject();
-        for (Map.Entry<String, Boolean> entry : src.getConfirmaciones().entrySet()) {
-            confJugadores.addProperty(entry.getKey(), entry.getValue());
+        out.name("estadisticas").beginArray();
+        for (Estadistica estadistica : src.getEstadisticas()) {
+            out.beginObject();
+            out.name("emailJugador").value(estadistica.getEmailJugador());
+            out.name("kda").beginObject();
+            out.name("kills").value(estadistica.getKda().getKills());
+            out.name("assists").value(estadistica.getKda().getAssists());
+            out.name("deaths").value(estadistica.getKda().getDeaths());
+            out.endObject();
+            out.name("rating").value(estadistica.getRating());
+            out.name("fechaCarga").value(estadistica.getFechaCarga().toString());
+            out.endObject();
         }
-        o.add("confirmaciones", confJugadores);
+        out.endArray();
 
-        JsonArray stats = new JsonArray();
-        for (Estadistica estadistica : src.getEstadisticas()) {
-            JsonObject je = new JsonObject();
-            je.addProperty("emailJugador", estadistica.getEmailJugador());
-            JsonObject jk = new JsonObject();
-            jk.addProperty("kills", estadistica.getKda().getKills());
-            jk.addProperty("assists", estadistica.getKda().getAssists());
-            jk.addProperty("deaths", estadistica.getKda().getDeaths());
-            je.add("kda", jk);
-            je.addProperty("rating", estadistica.getRating());
-            je.addProperty("fechaCarga", estadistica.getFechaCarga().toString());
-            stats.add(je);
-        }
-        o.add("estadisticas", stats);
-
-        JsonArray waitlist = new JsonArray();
+        out.name("listaEspera").beginArray();
         for (WaitlistEntry entry : src.getListaEspera()) {
-            JsonObject jw = new JsonObject();
-            jw.addProperty("emailJugador", entry.emailJugador());
-            jw.addProperty("fechaSolicitud", entry.fechaSolicitud().toString());
-            jw.addProperty("orden", entry.orden());
-            waitlist.add(jw);
+            out.beginObject();
+            out.name("emailJugador").value(entry.emailJugador());
+            out.name("fechaSolicitud").value(entry.fechaSolicitud().toString());
+            out.name("orden").value(entry.orden());
+            out.endObject();
         }
-        o.add("listaEspera", waitlist);
+        out.endArray();
 
         if (src.getResultado() != null) {
-            JsonObject jr = new JsonObject();
-            jr.addProperty("ganadorEmail", src.getResultado().getGanadorEmail());
-            o.add("resultado", jr);
+            out.name("resultado").beginObject();
+            if (src.getResultado().getGanadorEmail() != null) {
+                out.name("ganadorEmail").value(src.getResultado().getGanadorEmail());
+            }
+            out.endObject();
         }
 
-        return o;
+        out.endObject();
     }
 
     @Override
-    public Scrim deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        JsonObject o = json.getAsJsonObject();
-
-        int cupo = o.get("cupo").getAsInt();
-        String formato = o.has("formato") && !o.get("formato").isJsonNull()
-                ? o.get("formato").getAsString()
-                : "%dv%d".formatted(cupo, cupo);
-        String region = o.has("region") && !o.get("region").isJsonNull()
-                ? o.get("region").getAsString()
-                : "REGION_DESCONOCIDA";
-        int latenciaMax = o.has("latenciaMaxMs") && !o.get("latenciaMaxMs").isJsonNull()
-                ? o.get("latenciaMaxMs").getAsInt()
-                : 100;
-        String modalidad = o.has("modalidad") && !o.get("modalidad").isJsonNull()
-                ? o.get("modalidad").getAsString()
-                : "casual";
-
-        String emailCreador = o.get("emailCreador").getAsString();
-        String emailRivalLegacy = o.has("emailRival") && !o.get("emailRival").isJsonNull()
-                ? o.get("emailRival").getAsString()
-                : null;
-
-        Scrim scrim = new Scrim(
-                o.get("juego").getAsString(),
-                emailCreador,
-                o.get("rangoMin").getAsInt(),
-                o.get("rangoMax").getAsInt(),
-                cupo,
-                formato,
-                region,
-                latenciaMax,
-                modalidad
-        );
+    public Scrim read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String id = null;
+        long version = 0;
+        String juego = null;
+        String emailCreador = null;
+        String emailRivalLegacy = null;
+        Integer rangoMin = null;
+        Integer rangoMax = null;
+        Integer cupo = null;
+        String formato = null;
+        String region = null;
+        Integer latenciaMax = null;
+        String modalidad = null;
+        String estado = null;
+        String inicio = null;
+        String fin = null;
+        List<String> equipo1 = null;
+        List<String> equipo2 = null;
+        boolean tieneEquipo1 = false;
+        List<String> jugadoresLegacy = null;
+        Map<String, Boolean> confEquipos = null;
+        boolean tieneConfEquipos = false;
+        Map<String, Boolean> confJugadores = null;
+        Resultado resultado = null;
+        List<Estadistica> estadisticas = new ArrayList<>();
+        List<WaitlistEntry> listaEspera = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = leerTexto(in);
+                case "version" -> version = in.nextLong();
+                case "juego" -> juego = leerTexto(in);
+                case "emailCreador" -> emailCreador = diccionario.compartido(leerTexto(in));
+                case "emailRival" -> emailRivalLegacy = diccionario.compartido(leerTexto(in));
+                case "rangoMin" -> rangoMin = leerEntero(in);
+                case "rangoMax" -> rangoMax = leerEntero(in);
+                case "cupo" -> cupo = leerEntero(in);
+                case "formato" -> formato = leerTexto(in);
+                case "region" -> region = leerTexto(in);
+                case "latenciaMaxMs" -> latenciaMax = leerEntero(in);
+                case "modalidad" -> modalidad = leerTexto(in);
+                case "estado" -> estado = leerTexto(in);
+                case "inicio" -> inicio = leerTexto(in);
+                case "fin" -> fin = leerTexto(in);
+                case "equipo1" -> {
+                    tieneEquipo1 = true;
+                    equipo1 = leerEquipo(in);
+                }
+                case "equipo2" -> equipo2 = leerEquipo(in);
+                case "jugadores" -> jugadoresLegacy = leerEmails(in);
+                case "confirmacionesEquipos" -> {
+                    tieneConfEquipos = true;
+                    confEquipos = leerConfirmaciones(in);
+                }
+                case "confirmaciones" -> confJugadores = leerConfirmaciones(in);
+                case "estadisticas" -> leerEstadisticas(in, estadisticas);
+                case "listaEspera" -> leerListaEspera(in, listaEspera);
+                case "resultado" -> resultado = leerResultado(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (cupo == null || juego == null || emailCreador == null || rangoMin == null || rangoMax == null) {
+            throw new JsonParseException("Scrim incompleto: faltan juego, emailCreador, rangos o cupo");
+        }
 
+        Scrim scrim;
         try {
-            scrim.asignarId(o.get("id").getAsString());
-            setField(scrim, "estado", EstadoScrim.desdeNombre(o.get("estado").getAsString()));
-        } catch (Exception e) {
+            scrim = Scrim.restaurar(
+                    id,
+                    juego,
+                    emailCreador,
+                    rangoMin,
+                    rangoMax,
+                    cupo,
+                    formato != null ? formato : "%dv%d".formatted(cupo, cupo),
+                    region != null ? region : "REGION_DESCONOCIDA",
+                    latenciaMax != null ? latenciaMax : 100,
+                    modalidad != null ? modalidad : "casual",
+                    EstadoScrim.desdeNombre(estado),
+                    aFecha(inicio),
+                    aFecha(fin)
+            );
+        } catch (RuntimeException e) {
             throw new JsonParseException("Reconstruccion Scrim fallo: " + e.getMessage(), e);
         }
+        scrim.restaurarVersion(version);
 
-        if (o.has("inicio") && !o.get("inicio").isJsonNull()) {
-            ZonedDateTime inicioZoned = ArgentinaTimeZone.parsear(o.get("inicio").getAsString());
-            if (inicioZoned != null) {
-                setSilently(scrim, "inicio", ArgentinaTimeZone.aLocalDateTime(inicioZoned));
+        if (equipo1 != null) {
+            for (String email : equipo1) {
+                scrim.getEquipo1().agregarJugador(email);
             }
         }
-        if (o.has("fin") && !o.get("fin").isJsonNull()) {
-            ZonedDateTime finZoned = ArgentinaTimeZone.parsear(o.get("fin").getAsString());
-            if (finZoned != null) {
-                setSilently(scrim, "fin", ArgentinaTimeZone.aLocalDateTime(finZoned));
+        if (equipo2 != null) {
+            for (String email : equipo2) {
+                scrim.getEquipo2().agregarJugador(email);
             }
         }
 
-        if (o.has("equipo1") && o.get("equipo1").isJsonObject()) {
-            cargarEquipo(scrim, scrim.getEquipo1(), o.getAsJsonObject("equipo1"));
-        }
-        if (o.has("equipo2") && o.get("equipo2").isJsonObject()) {
-            cargarEquipo(scrim, scrim.getEquipo2(), o.getAsJsonObject("equipo2"));
-        }
-
-        if (o.has("confirmacionesEquipos") && o.get("confirmacionesEquipos").isJsonObject()) {
-            JsonObject confEquipos = o.getAsJsonObject("confirmacionesEquipos");
-            for (String key : confEquipos.keySet()) {
-            scrim.establecerConfirmacionEquipo(key, confEquipos.get(key).getAsBoolean());
+        if (confEquipos != null) {
+            for (Map.Entry<String, Boolean> entry : confEquipos.entrySet()) {
+                scrim.establecerConfirmacionEquipo(entry.getKey(), entry.getValue());
             }
         }
 
-        if (o.has("jugadores") && !o.has("equipo1")) {
-            for (JsonElement element : o.getAsJsonArray("jugadores")) {
-                String email = element.getAsString();
+        if (jugadoresLegacy != null && !tieneEquipo1) {
+            for (String email : jugadoresLegacy) {
                 scrim.getEquipo1().agregarJugador(email);
             }
         }
@@ -172,16 +241,15 @@ public class ScrimJsonAdapter implements JsonSerializer<Scrim>, JsonDeserializer
             scrim.getEquipo2().agregarJugador(emailRivalLegacy);
         }
 
-        if (o.has("confirmaciones") && o.get("confirmaciones").isJsonObject() && !o.has("confirmacionesEquipos")) {
-            JsonObject conf = o.getAsJsonObject("confirmaciones");
+        if (confJugadores != null && !tieneConfEquipos) {
             boolean equipo1Confirmado = false;
             boolean equipo2Confirmado = false;
-            for (String key : conf.keySet()) {
-                if (conf.get(key).getAsBoolean()) {
-                    if (scrim.getEquipo1().contieneJugador(key)) {
+            for (Map.Entry<String, Boolean> entry : confJugadores.entrySet()) {
+                if (entry.getValue()) {
+                    if (scrim.getEquipo1().contieneJugador(entry.getKey())) {
                         equipo1Confirmado = true;
                     }
-                    if (scrim.getEquipo2().contieneJugador(key)) {
+                    if (scrim.getEquipo2().contieneJugador(entry.getKey())) {
                         equipo2Confirmado = true;
                     }
                 }
@@ -190,80 +258,229 @@ public class ScrimJsonAdapter implements JsonSerializer<Scrim>, JsonDeserializer
             scrim.establecerConfirmacionEquipo(scrim.getEquipo2().getNombre(), equipo2Confirmado);
         }
 
-        if (o.has("resultado") && o.get("resultado").isJsonObject()) {
-            scrim.setResultado(new Resultado(o.getAsJsonObject("resultado").get("ganadorEmail").getAsString()));
-        }
-
-        if (o.has("estadisticas")) {
-            for (JsonElement element : o.getAsJsonArray("estadisticas")) {
-                JsonObject je = element.getAsJsonObject();
-                JsonObject jk = je.getAsJsonObject("kda");
-                KDA kda = new KDA(
-                        jk.get("kills").getAsInt(),
-                        jk.get("assists").getAsInt(),
-                        jk.get("deaths").getAsInt()
-                );
-                Estadistica estadistica = new Estadistica(
-                        je.get("emailJugador").getAsString(),
-                        kda,
-                        je.get("rating").getAsDouble(),
-                        LocalDateTime.parse(je.get("fechaCarga").getAsString())
-                );
-                scrim.agregarEstadisticaDirecta(estadistica);
+        if (resultado != null) {
+            scrim.setResultado(resultado);
+        }
+        for (Estadistica estadistica : estadisticas) {
+            scrim.agregarEstadisticaDirecta(estadistica);
+        }
+        for (WaitlistEntry entry : listaEspera) {
+            scrim.agregarWaitlistEntryDirecto(entry);
+        }
+
+        scrim.getEstado().recalcularEstado(scrim);
+        return scrim;
+    }
+
+    private void escribirEquipo(JsonWriter out, Equipo equipo) throws IOException {
+        out.beginObject();
+        out.name("nombre").value(equipo.getNombre());
+        out.name("jugadores").beginArray();
+        escribirJugadores(out, equipo, null);
+        out.endArray();
+        out.endObject();
+    }
+
+    private static void escribirJugadores(JsonWriter out, Equipo equipo, Equipo omitidos) throws IOException {
+        for (int i = 0; i < equipo.getCantidadJugadores(); i++) {
+            String email = equipo.getJugador(i);
+            if (omitidos == null || !omitidos.contieneJugador(email)) {
+                out.value(email);
             }
         }
+    }
 
-        if (o.has("listaEspera")) {
-            for (JsonElement element : o.getAsJsonArray("listaEspera")) {
-                JsonObject jw = element.getAsJsonObject();
-                WaitlistEntry entry = new WaitlistEntry(
-                        jw.get("emailJugador").getAsString(),
-                        LocalDateTime.parse(jw.get("fechaSolicitud").getAsString()),
-                        jw.get("orden").getAsInt()
-                );
-                scrim.agregarWaitlistEntryDirecto(entry);
+    private void escribirConfirmaciones(JsonWriter out, Map<String, Boolean> confirmaciones) throws IOException {
+        out.beginObject();
+        for (Map.Entry<String, Boolean> entry : confirmaciones.entrySet()) {
+            out.name(entry.getKey()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    private List<String> leerEquipo(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        List<String> jugadores = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("jugadores".equals(in.nextName())) {
+                jugadores = leerEmails(in);
+            } else {
+                in.skipValue();
             }
         }
+        in.endObject();
+        return jugadores;
+    }
 
-        scrim.getEstado().recalcularEstado(scrim);
-        return scrim;
+    private Map<String, Boolean> leerConfirmaciones(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        Map<String, Boolean> confirmaciones = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String clave = in.nextName();
+            confirmaciones.put(clave, leerBooleano(in));
+        }
+        in.endObject();
+        return confirmaciones;
+    }
+
+    private void leerEstadisticas(JsonReader in, List<Estadistica> estadisticas) throws IOException {
+        if (!esArray(in)) {
+            return;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            String email = null;
+            KDA kda = null;
+            Double rating = null;
+            String fechaCarga = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "emailJugador" -> email = diccionario.compartido(leerTexto(in));
+                    case "kda" -> kda = leerKda(in);
+                    case "rating" -> rating = in.nextDouble();
+                    case "fechaCarga" -> fechaCarga = leerTexto(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (email == null || kda == null || rating == null || fechaCarga == null) {
+                throw new JsonParseException("Estadística incompleta en scrim");
+            }
+            estadisticas.add(new Estadistica(email, kda, rating, LocalDateTime.parse(fechaCarga)));
+        }
+        in.endArray();
     }
 
-    private JsonObject serializarEquipo(Equipo equipo) {
-        JsonObject equipoJson = new JsonObject();
-        equipoJson.addProperty("nombre", equipo.getNombre());
-        JsonArray jugadores = new JsonArray();
-        for (String j : equipo.getJugadores()) {
-            jugadores.add(j);
+    private KDA leerKda(JsonReader in) throws IOException {
+        Integer kills = null;
+        Integer assists = null;
+        Integer deaths = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "kills" -> kills = leerEntero(in);
+                case "assists" -> assists = leerEntero(in);
+                case "deaths" -> deaths = leerEntero(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (kills == null || assists == null || deaths == null) {
+            throw new JsonParseException("KDA incompleto en scrim");
         }
-        equipoJson.add("jugadores", jugadores);
-        return equipoJson;
+        return new KDA(kills, assists, deaths);
     }
 
-    private void cargarEquipo(Scrim scrim, Equipo equipo, JsonObject equipoJson) {
-        if (!equipoJson.has("jugadores")) {
+    private void leerListaEspera(JsonReader in, List<WaitlistEntry> listaEspera) throws IOException {
+        if (!esArray(in)) {
             return;
         }
-        for (JsonElement element : equipoJson.getAsJsonArray("jugadores")) {
-            String email = element.getAsString();
-            equipo.agregarJugador(email);
+        in.beginArray();
+        while (in.hasNext()) {
+            String email = null;
+            String fechaSolicitud = null;
+            Integer orden = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "emailJugador" -> email = diccionario.compartido(leerTexto(in));
+                    case "fechaSolicitud" -> fechaSolicitud = leerTexto(in);
+                    case "orden" -> orden = leerEntero(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (email == null || fechaSolicitud == null || orden == null) {
+                throw new JsonParseException("Entrada de lista de espera incompleta en scrim");
+            }
+            listaEspera.add(new WaitlistEntry(email, LocalDateTime.parse(fechaSolicitud), orden));
         }
+        in.endArray();
     }
 
-    private void setSilently(Scrim scrim, String fieldName, Object value) {
-        try {
-            setField(scrim, fieldName, value);
-        } catch (Exception e) {
-            throw new JsonParseException("No se pudo establecer el campo '" + fieldName + "': " + e.getMessage(), e);
+    private Resultado leerResultado(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
         }
+        String ganador = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("ganadorEmail".equals(in.nextName())) {
+                ganador = leerTexto(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Resultado(ganador);
     }
 
-    private void setField(Scrim scrim, String fieldName, Object value) throws NoSuchFieldException, IllegalAccessException {
-        Field field = Scrim.class.getDeclaredField(fieldName);
-        field.setAccessible(true);
-        field.set(scrim, value);
+    private List<String> leerEmails(JsonReader in) throws IOException {
+        if (!esArray(in)) {
+            return null;
+        }
+        List<String> valores = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            String valor = leerTexto(in);
+            if (valor != null) {
+                valores.add(diccionario.compartido(valor));
+            }
+        }
+        in.endArray();
+        return valores;
     }
-}
 
+    private LocalDateTime aFecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        ZonedDateTime zoned = ArgentinaTimeZone.parsear(valor);
+        return zoned != null ? ArgentinaTimeZone.aLocalDateTime(zoned) : null;
+    }
 
+    private boolean esArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+            return true;
+        }
+        in.skipValue();
+        return false;
+    }
 
+    private String leerTexto(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private Integer leerEntero(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    private boolean leerBooleano(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+}
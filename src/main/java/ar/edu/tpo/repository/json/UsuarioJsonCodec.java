@@ -0,0 +1,394 @@
+package ar.edu.tpo.repository.json;
+
+import ar.edu.tpo.domain.Jugador;
+import ar.edu.tpo.domain.Organizador;
+import ar.edu.tpo.domain.SancionActiva;
+import ar.edu.tpo.domain.SancionHistorica;
+import ar.edu.tpo.domain.Usuario;
+import ar.edu.tpo.domain.alerta.ScrimAlerta;
+import ar.edu.tpo.domain.rangos.StateRangos;
+import ar.edu.tpo.domain.regiones.StateRegion;
+import ar.edu.tpo.domain.roles.StateRoles;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec streaming (JsonWriter/JsonReader) para Jugador y Organizador.
+ * Escribe y lee el mismo formato que usuarios.json sin construir un árbol
+ * JsonObject por usuario, de modo que la memoria no crece con el archivo.
+ */
+public class UsuarioJsonCodec {
+
+    private static final String TIPO_ORGANIZADOR = "Organizador";
+    private static final String TIPO_JUGADOR = "Jugador";
+
+    public void escribir(JsonWriter out, Usuario usuario) throws IOException {
+        out.beginObject();
+        out.name("tipo").value(usuario.getTipo());
+        out.name("nombre").value(usuario.getNombre());
+        if (usuario.getId() != null) {
+            out.name("id").value(usuario.getId());
+        }
+        out.name("email").value(usuario.getEmail());
+        out.name("passwordHash").value(usuario.getPasswordHash());
+        List<String> favoritas = List.of();
+        List<ScrimAlerta> alertas = List.of();
+        if (usuario instanceof Jugador jugador) {
+            out.name("mmr").value(jugador.getMmr());
+            out.name("latenciaMs").value(jugador.getLatenciaMs());
+            if (jugador.getKdaHistorico() != null) {
+                out.name("kdaHistorico").value(jugador.getKdaHistorico());
+            }
+            out.name("rango").value(jugador.getRangoNombre());
+            out.name("rolPreferido").value(jugador.getRolNombre());
+            out.name("region").value(jugador.getRegionNombre());
+            favoritas = jugador.getScrimsFavoritas();
+            alertas = jugador.getAlertasScrim();
+        }
+
+        out.name("sancionesActivas").beginArray();
+        for (SancionActiva sancion : usuario.getSancionesActivasSinDepurar()) {
+            out.beginObject();
+            out.name("motivo").value(sancion.getMotivo());
+            if (sancion.getExpiraEn() != null) {
+                out.name("expiraEn").value(sancion.getExpiraEn().toString());
+            }
+            out.endObject();
+        }
+        out.endArray();
+
+        if (!usuario.getSancionesHistoricas().isEmpty()) {
+            out.name("sancionesHistoricas").beginArray();
+            for (SancionHistorica sancion : usuario.getSancionesHistoricas()) {
+                out.beginObject();
+                out.name("motivo").value(sancion.getMotivo());
+                if (sancion.getExpiraEn() != null) {
+                    out.name("expiraEn").value(sancion.getExpiraEn().toString());
+                }
+                out.name("levantadaEn").value(sancion.getLevantadaEn().toString());
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        out.name("scrimsFavoritas").beginArray();
+        for (String favorita : favoritas) {
+            out.value(favorita);
+        }
+        out.endArray();
+
+        out.name("alertasScrim").beginArray();
+        for (ScrimAlerta alerta : alertas) {
+            escribirAlerta(out, alerta);
+        }
+        out.endArray();
+
+        out.name("strikeCount").value(usuario.getStrikeCount());
+        out.name("suspendido").value(usuario.estaSuspendido());
+        out.endObject();
+    }
+
+    /**
+     * Lee un usuario. Acepta el formato legacy (campo {@code rol} en lugar de
+     * {@code tipo}, sanciones como texto plano) y completa valores por defecto.
+     */
+    public Usuario leer(JsonReader in) throws IOException {
+        String tipo = null;
+        String rolLegacy = null;
+        String email = null;
+        String nombre = null;
+        String id = null;
+        String password = null;
+        int mmr = 0;
+        int latencia = 0;
+        Double kda = null;
+        String rango = null;
+        String rolPreferido = null;
+        String region = null;
+        List<SancionActiva> sanciones = new ArrayList<>();
+        List<SancionHistorica> sancionesHistoricas = new ArrayList<>();
+        List<String> favoritas = new ArrayList<>();
+        List<ScrimAlerta> alertas = new ArrayList<>();
+        int strikes = 0;
+        boolean suspendido = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tipo" -> tipo = leerTexto(in);
+                case "rol" -> rolLegacy = leerTexto(in);
+                case "email" -> email = leerTexto(in);
+                case "nombre" -> nombre = leerTexto(in);
+                case "id" -> id = leerTexto(in);
+                case "passwordHash" -> password = leerTexto(in);
+                case "mmr" -> mmr = leerEntero(in, 0);
+                case "latenciaMs" -> latencia = leerEntero(in, 0);
+                case "kdaHistorico" -> kda = leerDecimal(in);
+                case "rango" -> rango = leerTexto(in);
+                case "rolPreferido" -> rolPreferido = leerTexto(in);
+                case "region" -> region = leerTexto(in);
+                case "sancionesActivas" -> leerSanciones(in, sanciones);
+                case "sancionesHistoricas" -> leerSancionesHistoricas(in, sancionesHistoricas);
+                case "scrimsFavoritas" -> leerScrimsFavoritas(in, favoritas);
+                case "alertasScrim" -> leerAlertasScrim(in, alertas);
+                case "strikeCount" -> strikes = leerEntero(in, 0);
+                case "suspendido" -> suspendido = leerBooleano(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (password == null) {
+            password = "";
+        }
+        if (nombre == null || nombre.isBlank()) {
+            nombre = email != null ? email : "Usuario";
+        }
+        if (tipo == null) {
+            // Compatibilidad con formato legacy basado en ENUM Rol
+            tipo = "PLAYER".equalsIgnoreCase(rolLegacy) ? TIPO_JUGADOR : TIPO_ORGANIZADOR;
+        }
+
+        if (!TIPO_JUGADOR.equalsIgnoreCase(tipo)) {
+            return new Organizador(id, nombre, email, password, sanciones, sancionesHistoricas, strikes, suspendido);
+        }
+        if (rango == null) {
+            rango = determinarRangoPorMmr(mmr);
+        }
+        if (rolPreferido == null) {
+            rolPreferido = StateRoles.disponibles().get(0).getNombre();
+        }
+        if (region == null) {
+            region = StateRegion.disponibles().get(0).getNombre();
+        }
+        Jugador jugador = new Jugador(id, nombre, email, password, mmr, latencia, rango, rolPreferido, region,
+                sanciones, sancionesHistoricas, strikes, suspendido, favoritas, alertas);
+        if (kda != null) {
+            jugador.setKdaHistorico(kda);
+        }
+        return jugador;
+    }
+
+    private void escribirAlerta(JsonWriter out, ScrimAlerta alerta) throws IOException {
+        out.beginObject();
+        if (alerta.getJuego() != null && !alerta.getJuego().isBlank()) {
+            out.name("juego").value(alerta.getJuego());
+        }
+        if (alerta.getRegion() != null && !alerta.getRegion().isBlank()) {
+            out.name("region").value(alerta.getRegion());
+        }
+        if (alerta.getRangoMin() != null) {
+            out.name("rangoMin").value(alerta.getRangoMin());
+        }
+        if (alerta.getRangoMax() != null) {
+            out.name("rangoMax").value(alerta.getRangoMax());
+        }
+        if (alerta.getLatenciaMax() != null) {
+            out.name("latenciaMax").value(alerta.getLatenciaMax());
+        }
+        if (alerta.getFormato() != null && !alerta.getFormato().isBlank()) {
+            out.name("formato").value(alerta.getFormato());
+        }
+        if (alerta.getModalidad() != null && !alerta.getModalidad().isBlank()) {
+            out.name("modalidad").value(alerta.getModalidad());
+        }
+        out.endObject();
+    }
+
+    private void leerSanciones(JsonReader in, List<SancionActiva> sanciones) throws IOException {
+        if (!esArray(in)) {
+            return;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            JsonToken token = in.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                String motivo = null;
+                LocalDateTime expira = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "motivo" -> motivo = leerTexto(in);
+                        case "expiraEn" -> expira = leerFecha(in);
+                        default -> in.skipValue();
+                    }
+                }
+                in.endObject();
+                if (motivo != null) {
+                    sanciones.add(new SancionActiva(motivo, expira));
+                }
+            } else if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                sanciones.add(new SancionActiva(leerTexto(in), null));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endArray();
+    }
+
+    private void leerSancionesHistoricas(JsonReader in, List<SancionHistorica> sanciones) throws IOException {
+        if (!esArray(in)) {
+            return;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            String motivo = null;
+            LocalDateTime expira = null;
+            LocalDateTime levantada = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "motivo" -> motivo = leerTexto(in);
+                    case "expiraEn" -> expira = leerFecha(in);
+                    case "levantadaEn" -> levantada = leerFecha(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (motivo != null && levantada != null) {
+                sanciones.add(new SancionHistorica(motivo, expira, levantada));
+            }
+        }
+        in.endArray();
+    }
+
+    private void leerScrimsFavoritas(JsonReader in, List<String> favoritas) throws IOException {
+        if (!esArray(in)) {
+            return;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            JsonToken token = in.peek();
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                favoritas.add(leerTexto(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endArray();
+    }
+
+    private void leerAlertasScrim(JsonReader in, List<ScrimAlerta> alertas) throws IOException {
+        if (!esArray(in)) {
+            return;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            String juego = null;
+            String region = null;
+            Integer rangoMin = null;
+            Integer rangoMax = null;
+            Integer latenciaMax = null;
+            String formato = null;
+            String modalidad = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "juego" -> juego = leerTexto(in);
+                    case "region" -> region = leerTexto(in);
+                    case "rangoMin" -> rangoMin = leerEnteroONulo(in);
+                    case "rangoMax" -> rangoMax = leerEnteroONulo(in);
+                    case "latenciaMax" -> latenciaMax = leerEnteroONulo(in);
+                    case "formato" -> formato = leerTexto(in);
+                    case "modalidad" -> modalidad = leerTexto(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            alertas.add(new ScrimAlerta(juego, region, rangoMin, rangoMax, latenciaMax, formato, modalidad));
+        }
+        in.endArray();
+    }
+
+    private boolean esArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+            return true;
+        }
+        in.skipValue();
+        return false;
+    }
+
+    private String leerTexto(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(in.nextBoolean());
+        }
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return in.nextString();
+        }
+        in.skipValue();
+        return null;
+    }
+
+    private int leerEntero(JsonReader in, int defaultValue) throws IOException {
+        Integer valor = leerEnteroONulo(in);
+        return valor != null ? valor : defaultValue;
+    }
+
+    private Integer leerEnteroONulo(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            try {
+                return (int) in.nextDouble();
+            } catch (NumberFormatException e2) {
+                in.skipValue();
+                return null;
+            }
+        }
+    }
+
+    private Double leerDecimal(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return null;
+        }
+        return in.nextDouble();
+    }
+
+    private boolean leerBooleano(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return in.nextBoolean();
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        in.skipValue();
+        return false;
+    }
+
+    private LocalDateTime leerFecha(JsonReader in) throws IOException {
+        String texto = leerTexto(in);
+        return texto != null ? LocalDateTime.parse(texto) : null;
+    }
+
+    private String determinarRangoPorMmr(int mmr) {
+        StateRangos rango = StateRangos.paraPuntos(mmr);
+        return (rango != null ? rango : StateRangos.disponibles().get(0)).getNombre();
+    }
+}
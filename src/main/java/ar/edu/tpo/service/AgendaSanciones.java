@@ -0,0 +1,12 @@
+package ar.edu.tpo.service;
+
+import ar.edu.tpo.domain.Usuario;
+
+/**
+ * Recibe los usuarios cuyas sanciones cambiaron, para agendar cuándo vence la
+ * próxima.
+ */
+public interface AgendaSanciones {
+
+    void agendarVencimiento(Usuario usuario);
+}
@@ -1,5 +1,7 @@
 package ar.edu.tpo.service;
 
+import ar.edu.tpo.domain.Reloj;
+
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 
@@ -7,7 +9,7 @@ import java.time.format.DateTimeFormatter;
  * Utilidades para trabajar con la zona horaria de Argentina.
  */
 public class ArgentinaTimeZone {
-    private static final ZoneId ZONA_ARGENTINA = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final ZoneId ZONA_ARGENTINA = Reloj.ZONA_ARGENTINA;
 
     /**
      * Obtiene la zona horaria de Argentina.
@@ -17,10 +19,10 @@ public class ArgentinaTimeZone {
     }
 
     /**
-     * Obtiene la fecha/hora actual en Argentina.
+     * Obtiene la fecha/hora actual en Argentina según el reloj indicado.
      */
-    public static ZonedDateTime ahora() {
-        return ZonedDateTime.now(ZONA_ARGENTINA);
+    public static ZonedDateTime ahora(Clock clock) {
+        return ZonedDateTime.now(clock.withZone(ZONA_ARGENTINA));
     }
 
     /**
@@ -5,14 +5,20 @@ import ar.edu.tpo.domain.motivo.Motivo;
 import ar.edu.tpo.domain.motivo.MotivoAbandono;
 import ar.edu.tpo.domain.motivo.MotivoNoShow;
 
+import java.time.Clock;
 import java.time.Duration;
 
 public class ConductaService {
-    private final RegistroConducta registro = new RegistroConducta();
+    private final RegistroConducta registro;
     private final UsuarioService usuarioService;
 
     public ConductaService(UsuarioService usuarioService) {
+        this(usuarioService, Clock.systemDefaultZone());
+    }
+
+    public ConductaService(UsuarioService usuarioService, Clock clock) {
         this.usuarioService = usuarioService;
+        this.registro = new RegistroConducta(clock);
     }
 
     public void registrarAbandono(String email){ registrar(email, new MotivoAbandono()); }
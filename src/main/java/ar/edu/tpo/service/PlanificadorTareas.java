@@ -0,0 +1,268 @@
+package ar.edu.tpo.service;
+
+import ar.edu.tpo.domain.RelojSimulado;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planificador compartido por los schedulers de scrims y de sanciones.
+ *
+ * Un hilo espera en una {@link DelayQueue} la próxima tarea que vence y la
+ * despacha a un pool acotado de carriles: cada carril es un hilo propio y las
+ * tareas se reparten por el hash de su clave (id de scrim, email). Así las
+ * tareas de una misma clave se ejecutan en orden y de a una, y una tarea lenta
+ * solo demora a las que comparten su carril.
+ *
+ * Por cada tarea se mide el lag (cuánto después de su vencimiento empezó, o de
+ * su alta si ya estaba vencida al agendarla) y la duración; las que superan
+ * {@link #UMBRAL_LENTA_MS} se informan por consola.
+ *
+ * Los vencimientos se miden con el {@link Clock} recibido (por defecto el del
+ * sistema). El hilo despachador duerme en tiempo real hasta el próximo
+ * vencimiento, así que si el reloj se adelanta a mano hay que avisarle con
+ * {@link #despertar()}; un {@link RelojSimulado} lo hace solo en cada avance.
+ */
+public class PlanificadorTareas implements AutoCloseable {
+
+    static final long UMBRAL_LENTA_MS = 1_000;
+    // Vencimiento de las marcas de despertar: antes que cualquier tarea, sin desbordar getDelay
+    private static final long YA = Long.MIN_VALUE / 2;
+
+    private final String nombre;
+    private final Clock clock;
+    private final ExecutorService[] carriles;
+    private final DelayQueue<Tarea> pendientes = new DelayQueue<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Thread despachador;
+    private volatile boolean activo = true;
+
+    private final LongAdder ejecutadas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder lagTotalMs = new LongAdder();
+    private final LongAccumulator lagMaximoMs = new LongAccumulator(Math::max, 0);
+    private final LongAdder duracionTotalMs = new LongAdder();
+    private final LongAccumulator duracionMaximaMs = new LongAccumulator(Math::max, 0);
+
+    // La secuencia desempata tareas con el mismo vencimiento en orden de alta.
+    // Una tarea sin acción es una marca de despertar y no se ejecuta.
+    private final class Tarea implements Delayed {
+        private final String clave;
+        private final String descripcion;
+        private final long vencimientoMs;
+        private final long altaMs;
+        private final long orden;
+        private final Runnable accion;
+
+        private Tarea(String clave, String descripcion, long vencimientoMs, Runnable accion) {
+            this.clave = clave;
+            this.descripcion = descripcion;
+            this.vencimientoMs = vencimientoMs;
+            this.altaMs = clock.millis();
+            this.orden = secuencia.incrementAndGet();
+            this.accion = accion;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(vencimientoMs - clock.millis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            Tarea o = (Tarea) otro;
+            int porVencimiento = Long.compare(vencimientoMs, o.vencimientoMs);
+            return porVencimiento != 0 ? porVencimiento : Long.compare(orden, o.orden);
+        }
+    }
+
+    /**
+     * @param cantidadCarriles cantidad de hilos que ejecutan tareas
+     */
+    public PlanificadorTareas(String nombre, int cantidadCarriles) {
+        this(nombre, cantidadCarriles, Clock.systemDefaultZone());
+    }
+
+    public PlanificadorTareas(String nombre, int cantidadCarriles, Clock clock) {
+        if (cantidadCarriles <= 0) {
+            throw new IllegalArgumentException("La cantidad de carriles debe ser >= 1");
+        }
+        this.nombre = Objects.requireNonNull(nombre, "nombre requerido");
+        this.clock = Objects.requireNonNull(clock, "clock requerido");
+        this.carriles = new ExecutorService[cantidadCarriles];
+        for (int i = 0; i < cantidadCarriles; i++) {
+            String hilo = nombre + "-" + i;
+            carriles[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, hilo);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.despachador = new Thread(this::despachar, nombre);
+        despachador.setDaemon(true);
+        despachador.start();
+        if (clock instanceof RelojSimulado simulado) {
+            simulado.alAvanzar(this::despertar);
+        }
+    }
+
+    /**
+     * Agenda la acción para que se ejecute en el carril de {@code clave} a
+     * partir de {@code vencimientoMs} (epoch millis). Un vencimiento pasado se
+     * despacha enseguida.
+     */
+    public void programar(String clave, String descripcion, long vencimientoMs, Runnable accion) {
+        if (!activo) {
+            throw new IllegalStateException("El planificador " + nombre + " está detenido");
+        }
+        pendientes.put(new Tarea(
+                Objects.requireNonNull(clave, "clave requerida"),
+                descripcion,
+                vencimientoMs,
+                Objects.requireNonNull(accion, "accion requerida")));
+    }
+
+    /**
+     * Ejecuta la acción lo antes posible en el carril de {@code clave}.
+     */
+    public void ejecutar(String clave, String descripcion, Runnable accion) {
+        programar(clave, descripcion, clock.millis(), accion);
+    }
+
+    /**
+     * Hace que el despachador vuelva a mirar el reloj y despache lo que ya
+     * venció. Solo hace falta cuando el reloj avanza de otra forma que en
+     * tiempo real.
+     */
+    public void despertar() {
+        if (activo) {
+            pendientes.put(new Tarea(null, null, YA, null));
+        }
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public int getCantidadCarriles() {
+        return carriles.length;
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    public long getEjecutadas() {
+        return ejecutadas.sum();
+    }
+
+    public long getFallidas() {
+        return fallidas.sum();
+    }
+
+    public long getLagMaximoMs() {
+        return lagMaximoMs.get();
+    }
+
+    public long getDuracionMaximaMs() {
+        return duracionMaximaMs.get();
+    }
+
+    public String resumen() {
+        long total = ejecutadas.sum();
+        long lagPromedio = total == 0 ? 0 : lagTotalMs.sum() / total;
+        long duracionPromedio = total == 0 ? 0 : duracionTotalMs.sum() / total;
+        return "%s: carriles=%d, ejecutadas=%d, fallidas=%d, pendientes=%d, lag prom=%dms, lag máx=%dms, duración prom=%dms, duración máx=%dms"
+                .formatted(nombre, carriles.length, total, fallidas.sum(), pendientes.size(),
+                        lagPromedio, lagMaximoMs.get(), duracionPromedio, duracionMaximaMs.get());
+    }
+
+    /**
+     * Deja de despachar, descarta las tareas que no vencieron y espera a que
+     * terminen las que ya están en los carriles.
+     */
+    @Override
+    public void close() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        despachador.interrupt();
+        pendientes.clear();
+        for (ExecutorService carril : carriles) {
+            carril.shutdown();
+        }
+        try {
+            for (ExecutorService carril : carriles) {
+                if (!carril.awaitTermination(5, TimeUnit.SECONDS)) {
+                    carril.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (ExecutorService carril : carriles) {
+                carril.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void despachar() {
+        List<Tarea> vencidas = new ArrayList<>();
+        while (activo) {
+            try {
+                vencidas.add(pendientes.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pendientes.drainTo(vencidas);
+            for (Tarea tarea : vencidas) {
+                if (tarea.accion == null) {
+                    continue;
+                }
+                try {
+                    carrilDe(tarea.clave).execute(() -> correr(tarea));
+                } catch (RejectedExecutionException e) {
+                    // Se está cerrando: las tareas restantes se descartan
+                    return;
+                }
+            }
+            vencidas.clear();
+        }
+    }
+
+    private ExecutorService carrilDe(String clave) {
+        return carriles[Math.floorMod(clave.hashCode(), carriles.length)];
+    }
+
+    private void correr(Tarea tarea) {
+        long lag = Math.max(0, clock.millis() - Math.max(tarea.vencimientoMs, tarea.altaMs));
+        long inicioNanos = System.nanoTime();
+        try {
+            tarea.accion.run();
+        } catch (RuntimeException e) {
+            fallidas.increment();
+            System.err.println("[planificador] Error en " + tarea.descripcion + ": " + e.getMessage());
+        }
+        // La duración es tiempo real de ejecución, aunque el reloj sea simulado
+        long duracion = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos);
+        ejecutadas.increment();
+        lagTotalMs.add(lag);
+        lagMaximoMs.accumulate(lag);
+        duracionTotalMs.add(duracion);
+        duracionMaximaMs.accumulate(duracion);
+        if (lag >= UMBRAL_LENTA_MS || duracion >= UMBRAL_LENTA_MS) {
+            System.out.println("[planificador] " + tarea.descripcion + ": lag " + lag + " ms, duración " + duracion + " ms");
+        }
+    }
+}
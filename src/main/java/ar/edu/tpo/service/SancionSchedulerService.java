@@ -1,84 +1,79 @@
 package ar.edu.tpo.service;
 
+import ar.edu.tpo.domain.Usuario;
+import ar.edu.tpo.repository.Pagina;
+
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Scheduler que depura periódicamente las sanciones vencidas de los usuarios
- * y persiste los cambios en el repositorio.
+ * Scheduler que levanta las sanciones de los usuarios cuando vencen y
+ * persiste los cambios en el repositorio.
+ *
+ * Cada usuario con sanciones que expiran tiene agendado su vencimiento más
+ * próximo en el {@link PlanificadorTareas}, así que no se recorren usuarios
+ * cuando no vence nada. Al vencer, el email pasa a una cola y una única tarea
+ * levanta juntas las sanciones de todos los que se acumularon. Un vencimiento
+ * que quedó viejo (la sanción se levantó a mano) no levanta nada y solo
+ * reagenda el siguiente.
  */
-public class SancionSchedulerService {
+public class SancionSchedulerService implements AgendaSanciones {
 
-    private static volatile SancionSchedulerService instancia;
+    private static final int TAMANIO_LOTE = 200;
+    // Clave del planificador para las tareas que levantan un lote
+    private static final String CLAVE_LOTE = "sanciones";
 
     private final UsuarioService usuarioService;
-    private ScheduledExecutorService scheduler;
-    private boolean activo = false;
-
-    private SancionSchedulerService(UsuarioService usuarioService) {
-        this.usuarioService = usuarioService;
+    private final PlanificadorTareas planificador;
+    // Vencimiento más próximo agendado por email; los demás en el planificador se descartan
+    private final Map<String, Vencimiento> vigentes = new ConcurrentHashMap<>();
+    private final Queue<String> porLevantar = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean loteAgendado = new AtomicBoolean();
+    private volatile boolean activo = false;
+
+    private record Vencimiento(String email, long vencimientoMs) {
     }
 
-    public static SancionSchedulerService getInstance(UsuarioService usuarioService) {
-        if (instancia == null) {
-            synchronized (SancionSchedulerService.class) {
-                if (instancia == null) {
-                    instancia = new SancionSchedulerService(usuarioService);
-                }
-            }
-        }
-        return instancia;
+    public SancionSchedulerService(UsuarioService usuarioService, PlanificadorTareas planificador) {
+        this.usuarioService = Objects.requireNonNull(usuarioService);
+        this.planificador = Objects.requireNonNull(planificador);
     }
 
     /**
-     * Inicia el scheduler con un intervalo fijo en minutos.
-     * @param intervaloMinutos intervalo entre ejecuciones
+     * Agenda el próximo vencimiento de cada usuario sancionado; los atrasados
+     * se levantan enseguida.
      */
-    public synchronized void iniciar(long intervaloMinutos) {
+    public synchronized void iniciar() {
         if (activo) {
             System.out.println("[sanciones] Scheduler ya estaba activo");
             return;
         }
-
-        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "SancionScheduler");
-            t.setDaemon(true);
-            return t;
-        });
-
-        scheduler.scheduleAtFixedRate(
-                this::limpiarSancionesVencidas,
-                0,
-                intervaloMinutos,
-                TimeUnit.MINUTES
-        );
-
         activo = true;
-        System.out.println("[sanciones] Scheduler iniciado - revisando cada " + intervaloMinutos + " minutos");
+        String cursor = null;
+        do {
+            Pagina<Usuario> pagina = usuarioService.listar(u -> u.getProximoVencimientoMs() != Long.MAX_VALUE, cursor, TAMANIO_LOTE);
+            pagina.elementos().forEach(this::agendarVencimiento);
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        System.out.println("[sanciones] Scheduler iniciado - " + vigentes.size() + " vencimientos agendados");
     }
 
     /**
      * Detiene el scheduler si estaba activo.
      */
     public synchronized void detener() {
-        if (!activo || scheduler == null) {
+        if (!activo) {
             return;
         }
-
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        } finally {
-            scheduler = null;
-            activo = false;
-        }
+        activo = false;
+        vigentes.clear();
         System.out.println("[sanciones] Scheduler detenido");
     }
 
@@ -86,21 +81,58 @@ public class SancionSchedulerService {
         return activo;
     }
 
-    private void limpiarSancionesVencidas() {
+    /**
+     * Agenda el vencimiento más próximo del usuario, salvo que ya haya uno
+     * anterior pendiente (al vencer ese se agenda el siguiente). Mientras el
+     * scheduler está detenido no se agenda nada.
+     */
+    @Override
+    public void agendarVencimiento(Usuario usuario) {
+        long proximo = usuario.getProximoVencimientoMs();
+        if (!activo || proximo == Long.MAX_VALUE) {
+            return;
+        }
+        Vencimiento nuevo = new Vencimiento(usuario.getEmail(), proximo);
+        Vencimiento agendado = vigentes.merge(usuario.getEmail(), nuevo,
+                (actual, candidato) -> candidato.vencimientoMs() < actual.vencimientoMs() ? candidato : actual);
+        if (agendado == nuevo) {
+            planificador.programar(nuevo.email(), "vencimiento de sanción de " + nuevo.email(),
+                    nuevo.vencimientoMs(), () -> vencer(nuevo));
+        }
+    }
+
+    private void vencer(Vencimiento vencimiento) {
+        if (!activo || !vigentes.remove(vencimiento.email(), vencimiento)) {
+            return;
+        }
+        porLevantar.add(vencimiento.email());
+        if (loteAgendado.compareAndSet(false, true)) {
+            planificador.ejecutar(CLAVE_LOTE, "levantamiento de sanciones vencidas", this::levantarLote);
+        }
+    }
+
+    private void levantarLote() {
+        loteAgendado.set(false);
+        Set<String> emails = new LinkedHashSet<>();
+        for (String email = porLevantar.poll(); email != null; email = porLevantar.poll()) {
+            emails.add(email);
+        }
+        if (!emails.isEmpty()) {
+            levantar(emails);
+        }
+    }
+
+    private void levantar(Set<String> emails) {
         try {
-            List<UsuarioService.SancionRemovida> removidas = usuarioService.limpiarSancionesVencidas();
-            if (!removidas.isEmpty()) {
-                removidas.forEach(r -> {
-                    String expira = r.sancion().getExpiraEn() != null ? r.sancion().getExpiraEn().toString() : "sin fecha de expiración";
-                    System.out.println("[sanciones] Sanción '" + r.sancion().getMotivo() +
-                            "' levantada para " + r.email() +
-                            " (expiraba " + expira + ", levantada en " + r.sancion().getLevantadaEn() + ")");
-                });
-            }
+            List<UsuarioService.SancionRemovida> removidas = usuarioService.levantarSancionesVencidas(emails);
+            removidas.forEach(r -> {
+                String expira = r.sancion().getExpiraEn() != null ? r.sancion().getExpiraEn().toString() : "sin fecha de expiración";
+                System.out.println("[sanciones] Sanción '" + r.sancion().getMotivo() +
+                        "' levantada para " + r.email() +
+                        " (expiraba " + expira + ", levantada en " + r.sancion().getLevantadaEn() + ")");
+            });
         } catch (Exception e) {
-            System.err.println("[sanciones] Error en limpieza de sanciones: " + e.getMessage());
+            System.err.println("[sanciones] Error al levantar sanciones vencidas: " + e.getMessage());
         }
     }
 }
-
-
@@ -9,24 +9,48 @@ import ar.edu.tpo.domain.alerta.ScrimAlerta;
 import ar.edu.tpo.domain.rangos.StateRangos;
 import ar.edu.tpo.domain.regiones.StateRegion;
 import ar.edu.tpo.domain.roles.StateRoles;
+import ar.edu.tpo.repository.Pagina;
 import ar.edu.tpo.repository.UsuarioRepository;
 import ar.edu.tpo.notification.NotificationService;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public class UsuarioService {
     private final UsuarioRepository repo;
     private final NotificationService notificaciones;
+    private final Clock clock;
+    private volatile AgendaSanciones agenda;
 
     public UsuarioService(UsuarioRepository repo){
         this(repo, null);
     }
 
     public UsuarioService(UsuarioRepository repo, NotificationService notificaciones){
+        this(repo, notificaciones, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param clock reloj con el que se fechan y vencen las sanciones
+     */
+    public UsuarioService(UsuarioRepository repo, NotificationService notificaciones, Clock clock){
         this.repo = repo;
         this.notificaciones = notificaciones;
+        this.clock = clock;
+    }
+
+
+    /**
+     * Agenda a la que se avisa cada sanción aplicada o levantada (el scheduler).
+     */
+    public void setAgenda(AgendaSanciones agenda) {
+        this.agenda = agenda;
     }
 
     public void registrar(Usuario usuario){
@@ -53,6 +77,11 @@ public class UsuarioService {
         return List.copyOf(repo.listar());
     }
 
+    /** Página de usuarios que cumplen el filtro, en orden de id. */
+    public Pagina<Usuario> listar(Predicate<Usuario> filtro, String desdeId, int limite) {
+        return repo.listar(filtro, desdeId, limite);
+    }
+
     public Usuario buscar(String email){
         Usuario usuario = repo.buscar(email);
         if (usuario == null) {
@@ -89,7 +118,7 @@ public class UsuarioService {
     }
 
     public List<SancionActiva> obtenerSancionesActivas(String email) {
-        return List.copyOf(buscar(email).getSancionesActivas());
+        return List.copyOf(buscar(email).getSancionesActivas(clock.millis()));
     }
 
     public List<SancionHistorica> obtenerSancionesHistoricas(String email) {
@@ -130,28 +159,38 @@ public class UsuarioService {
 
     public SancionHistorica levantarSancion(String email, int indice) {
         Usuario usuario = buscar(email);
-        SancionHistorica sancion = usuario.levantarSancionPorIndice(indice);
+        SancionHistorica sancion = usuario.levantarSancionPorIndice(indice, clock);
         repo.actualizar(usuario);
         notificarSancionLevantada(usuario, sancion);
         return sancion;
     }
 
-    public List<SancionRemovida> limpiarSancionesVencidas() {
-        List<SancionRemovida> removidas = new ArrayList<>();
-        for (Usuario usuario : repo.listar()) {
-            List<SancionActiva> sanciones = usuario.getSancionesActivasSinDepurar();
-            if (sanciones.isEmpty()) {
+    /**
+     * Levanta las sanciones vencidas de los usuarios indicados. Los cambios se
+     * persisten juntos y recién después se envían las notificaciones; cada
+     * usuario vuelve a la agenda con su próximo vencimiento.
+     */
+    public List<SancionRemovida> levantarSancionesVencidas(Collection<String> emails) {
+        Map<Usuario, List<SancionHistorica>> modificados = new LinkedHashMap<>();
+        List<Usuario> revisados = new ArrayList<>();
+        for (String email : emails) {
+            Usuario usuario = repo.buscar(email);
+            if (usuario == null) {
                 continue;
             }
-            List<SancionHistorica> expiradas = usuario.removerSancionesVencidas();
+            revisados.add(usuario);
+            List<SancionHistorica> expiradas = usuario.removerSancionesVencidas(clock);
             if (!expiradas.isEmpty()) {
-        repo.actualizar(usuario);
-                expiradas.forEach(hist -> {
-                    removidas.add(new SancionRemovida(usuario.getEmail(), hist));
-                    notificarSancionLevantada(usuario, hist);
-                });
+                modificados.put(usuario, expiradas);
             }
         }
+        repo.actualizarTodos(modificados.keySet());
+        List<SancionRemovida> removidas = new ArrayList<>();
+        modificados.forEach((usuario, expiradas) -> expiradas.forEach(hist -> {
+            removidas.add(new SancionRemovida(usuario.getEmail(), hist));
+            notificarSancionLevantada(usuario, hist);
+        }));
+        revisados.forEach(this::avisarAgenda);
         return removidas;
     }
 
@@ -201,6 +240,14 @@ public class UsuarioService {
         if (notificaciones != null && sancion != null) {
             notificaciones.notificarSancionAplicada(usuario, sancion);
         }
+        avisarAgenda(usuario);
+    }
+
+    private void avisarAgenda(Usuario usuario) {
+        AgendaSanciones actual = agenda;
+        if (actual != null) {
+            actual.agendarVencimiento(usuario);
+        }
     }
 
     private void notificarSancionLevantada(Usuario usuario, SancionHistorica sancion) {
@@ -222,7 +269,7 @@ public class UsuarioService {
     }
 
     private void aplicarSancion(Usuario usuario, String motivo, Duration duracion) {
-        SancionActiva sancion = usuario.agregarSancion(motivo, duracion);
+        SancionActiva sancion = usuario.agregarSancion(motivo, duracion, clock);
         persistirYNotificarSancion(usuario, sancion);
     }
 
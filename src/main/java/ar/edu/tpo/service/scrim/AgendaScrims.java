@@ -0,0 +1,12 @@
+package ar.edu.tpo.service.scrim;
+
+/**
+ * Recibe los ids de los scrims cuyo horario o estado cambió, para recalcular
+ * cuándo les toca la próxima transición automática. La transición se calcula
+ * siempre sobre el scrim vigente en el repositorio, no sobre la copia que tenga
+ * quien avisa.
+ */
+public interface AgendaScrims {
+
+    void reprogramar(String idScrim);
+}
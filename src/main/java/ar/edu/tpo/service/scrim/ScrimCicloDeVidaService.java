@@ -1,14 +1,21 @@
 package ar.edu.tpo.service.scrim;
 
 import ar.edu.tpo.domain.Jugador;
+import ar.edu.tpo.domain.Reloj;
 import ar.edu.tpo.domain.Scrim;
 import ar.edu.tpo.domain.Usuario;
+import ar.edu.tpo.domain.estado.ConfirmadoState;
+import ar.edu.tpo.domain.estado.EnJuegoState;
 import ar.edu.tpo.notification.NotificationService;
+import ar.edu.tpo.repository.ConflictoDeVersionException;
+import ar.edu.tpo.repository.Pagina;
 import ar.edu.tpo.repository.ScrimRepository;
 import ar.edu.tpo.service.UsuarioService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.Objects;
 
 /**
@@ -16,9 +23,12 @@ import java.util.Objects;
  */
 public class ScrimCicloDeVidaService {
 
+    private static final int TAMANIO_LOTE = 200;
+
     private final ScrimRepository repo;
     private final UsuarioService usuarios;
     private final NotificationService notificaciones;
+    private volatile AgendaScrims agenda;
 
     public ScrimCicloDeVidaService(ScrimRepository repo, UsuarioService usuarios, NotificationService notificaciones) {
         this.repo = Objects.requireNonNull(repo);
@@ -26,6 +36,13 @@ public class ScrimCicloDeVidaService {
         this.notificaciones = notificaciones;
     }
 
+    /**
+     * Agenda a la que se avisa cada cambio de horario o de estado (el scheduler).
+     */
+    public void setAgenda(AgendaScrims agenda) {
+        this.agenda = agenda;
+    }
+
     public Scrim crearScrim(String juego, String emailCreador,
                             int rangoMin, int rangoMax, int cupo,
                             String formato, String region, int latenciaMaxMs,
@@ -67,75 +84,168 @@ public class ScrimCicloDeVidaService {
         return repo.listar();
     }
 
+    /** Página de scrims en orden de id, a partir del siguiente a {@code desdeId}. */
+    public Pagina<Scrim> listarScrims(String desdeId, int limite) {
+        return repo.listar(scrim -> true, desdeId, limite);
+    }
+
+    /**
+     * Scrims que buscan jugadores en la región del jugador, con rango que admite
+     * su MMR y latencia máxima que tolera la suya.
+     */
+    public List<Scrim> listarAbiertasPara(Jugador jugador) {
+        return repo.buscarAbiertasEn(jugador.getRegionNombre(), jugador.getMmr()).stream()
+                .filter(scrim -> jugador.getLatenciaMs() <= scrim.getLatenciaMaxMs())
+                .toList();
+    }
+
+    /** Scrims que creó el usuario, en los que juega o en los que espera como suplente. */
+    public List<Scrim> listarScrimsDe(String email) {
+        return repo.buscarPorParticipante(email);
+    }
+
     public Scrim buscar(String id) {
         return repo.buscarPorId(id);
     }
 
     public void programar(String idScrim, LocalDateTime inicio, LocalDateTime fin) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.programar(inicio, fin);
-        repo.guardar(scrim);
+        Scrim scrim = repo.conScrim(idScrim, s -> {
+            s.programar(inicio, fin);
+            return s;
+        });
+        avisarAgenda(idScrim);
         System.out.println("[evento] ScrimProgramado " + idScrim + " " + inicio + "→" + fin);
         notificarProgramacion(scrim);
     }
 
     public void limpiarAgenda(String idScrim) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.limpiarAgenda();
-        repo.guardar(scrim);
+        Scrim scrim = repo.conScrim(idScrim, s -> {
+            s.limpiarAgenda();
+            return s;
+        });
+        avisarAgenda(idScrim);
         System.out.println("[evento] ScrimAgendaLimpia " + idScrim);
     }
 
     public void iniciarScrim(String idScrim) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.iniciar();
-        repo.guardar(scrim);
+        Scrim scrim = repo.conScrim(idScrim, s -> {
+            s.iniciar();
+            return s;
+        });
+        avisarAgenda(idScrim);
         System.out.println("[evento] ScrimEnJuego " + idScrim);
         notificarEstado(scrim, "EN_JUEGO");
     }
 
     public void finalizarScrim(String idScrim) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.finalizar();
-        repo.guardar(scrim);
+        Scrim scrim = repo.conScrim(idScrim, s -> {
+            s.finalizar();
+            return s;
+        });
+        avisarAgenda(idScrim);
         System.out.println("[evento] ScrimFinalizado " + idScrim);
         notificarEstado(scrim, "FINALIZADO");
     }
 
     public void cancelarScrim(String idScrim) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.cancelar();
-        repo.guardar(scrim);
+        Scrim scrim = repo.conScrim(idScrim, s -> {
+            s.cancelar();
+            return s;
+        });
+        avisarAgenda(idScrim);
         System.out.println("[evento] ScrimCancelado " + idScrim);
         notificarEstado(scrim, "CANCELADO");
     }
 
-    private void notificarCoincidencias(Scrim scrim) {
-        if (notificaciones == null) {
-            return;
-        }
-        for (Usuario usuario : usuarios.listar()) {
-            if (!(usuario instanceof Jugador jugador)) {
-                continue;
-            }
-            if (jugador.getAlertasScrim().isEmpty()) {
+    /**
+     * Aplica de una vez las transiciones automáticas vencidas hasta
+     * {@code ahoraMs} (por ejemplo, las que se perdieron con el sistema
+     * detenido). Los candidatos salen del índice por estado. Un scrim cuyo
+     * inicio y fin ya pasaron se lleva directo a FINALIZADO. Todos se guardan
+     * en un solo lote y cada participante recibe un único aviso.
+     *
+     * Si el lote choca con otro guardar no se aplica nada: el scheduler los
+     * resuelve de a uno.
+     */
+    public PuestaAlDia ponerAlDia(long ahoraMs) {
+        long desde = System.nanoTime();
+        List<Scrim> candidatos = new ArrayList<>(repo.buscarPorEstado(ConfirmadoState.INSTANCIA));
+        candidatos.addAll(repo.buscarPorEstado(EnJuegoState.INSTANCIA));
+        List<Scrim> actualizados = new ArrayList<>();
+        int iniciados = 0;
+        int finalizados = 0;
+        for (Scrim scrim : candidatos) {
+            boolean inicia = scrim.getEstado() instanceof ConfirmadoState && vencio(scrim.getInicioMs(), ahoraMs);
+            boolean finaliza = (inicia || scrim.getEstado() instanceof EnJuegoState) && vencio(scrim.getFinMs(), ahoraMs);
+            if (!inicia && !finaliza) {
                 continue;
             }
-            if (jugador.getLatenciaMs() > scrim.getLatenciaMaxMs()) {
-                continue;
+            Scrim copia = scrim.copiar();
+            if (inicia) {
+                copia.iniciar();
+                iniciados++;
             }
-            if (!jugador.getRegionNombre().equalsIgnoreCase(scrim.getRegion())) {
-                continue;
+            if (finaliza) {
+                copia.finalizar();
+                finalizados++;
             }
-            int mmrJugador = jugador.getMmr();
-            if (mmrJugador < scrim.getRangoMin() || mmrJugador > scrim.getRangoMax()) {
-                continue;
+            actualizados.add(copia);
+        }
+        try {
+            repo.guardarTodos(actualizados);
+        } catch (ConflictoDeVersionException e) {
+            System.out.println("[persistencia] " + e.getMessage() + ". La puesta al día queda a cargo del scheduler.");
+            return new PuestaAlDia(0, 0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - desde));
+        }
+        if (!actualizados.isEmpty()) {
+            System.out.println("[evento] ScrimsPuestosAlDia " + actualizados.size());
+            if (notificaciones != null) {
+                notificaciones.notificarScrimsActualizados(actualizados);
             }
+        }
+        actualizados.forEach(s -> avisarAgenda(s.getId()));
+        return new PuestaAlDia(iniciados, finalizados, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - desde));
+    }
 
-            boolean coincide = jugador.getAlertasScrim().stream().anyMatch(alerta -> coincideCon(scrim, jugador, alerta));
-            if (coincide) {
-                notificaciones.notificarScrimRecomendada(scrim, jugador);
-            }
+    private static boolean vencio(long instanteMs, long ahoraMs) {
+        return instanteMs != Reloj.SIN_FECHA && instanteMs <= ahoraMs;
+    }
+
+    private void avisarAgenda(String idScrim) {
+        AgendaScrims actual = agenda;
+        if (actual != null) {
+            actual.reprogramar(idScrim);
+        }
+    }
+
+    private void notificarCoincidencias(Scrim scrim) {
+        if (notificaciones == null) {
+            return;
+        }
+        String cursor = null;
+        do {
+            Pagina<Usuario> pagina = usuarios.listar(
+                    u -> u instanceof Jugador j && !j.getAlertasScrim().isEmpty(), cursor, TAMANIO_LOTE);
+            pagina.elementos().forEach(u -> notificarSiCoincide(scrim, (Jugador) u));
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+    }
+
+    private void notificarSiCoincide(Scrim scrim, Jugador jugador) {
+        if (jugador.getLatenciaMs() > scrim.getLatenciaMaxMs()) {
+            return;
+        }
+        if (!jugador.getRegionNombre().equalsIgnoreCase(scrim.getRegion())) {
+            return;
+        }
+        int mmrJugador = jugador.getMmr();
+        if (mmrJugador < scrim.getRangoMin() || mmrJugador > scrim.getRangoMax()) {
+            return;
+        }
+
+        boolean coincide = jugador.getAlertasScrim().stream().anyMatch(alerta -> coincideCon(scrim, jugador, alerta));
+        if (coincide) {
+            notificaciones.notificarScrimRecomendada(scrim, jugador);
         }
     }
 
@@ -167,10 +277,6 @@ public class ScrimCicloDeVidaService {
                 && jugador.getMmr() <= scrim.getRangoMax();
     }
 
-    private Scrim obtenerScrim(String idScrim) {
-        return repo.buscarPorId(idScrim);
-    }
-
     private String normalizarJuego(String juego) {
         String valor = juego != null ? juego.trim() : "";
         if (!"valorant".equalsIgnoreCase(valor)) {
@@ -204,4 +310,7 @@ public class ScrimCicloDeVidaService {
             notificaciones.notificarScrimEstado(scrim, estado);
         }
     }
+
+    /** Resultado de {@link #ponerAlDia}: un scrim que arrancó y terminó cuenta en ambos. */
+    public record PuestaAlDia(int iniciados, int finalizados, long duracionMs) {}
 }
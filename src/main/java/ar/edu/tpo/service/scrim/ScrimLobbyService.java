@@ -13,6 +13,8 @@ import ar.edu.tpo.service.ConductaService;
 import ar.edu.tpo.service.UsuarioService;
 import ar.edu.tpo.notification.NotificationService;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -24,99 +26,136 @@ public class ScrimLobbyService {
     private final UsuarioService usuarios;
     private final ConductaService conductaService;
     private final NotificationService notificaciones;
+    private final Clock clock;
+    private volatile AgendaScrims agenda;
 
     public ScrimLobbyService(ScrimRepository repo, UsuarioService usuarios, ConductaService conductaService, NotificationService notificaciones) {
+        this(repo, usuarios, conductaService, notificaciones, Clock.systemDefaultZone());
+    }
+
+    public ScrimLobbyService(ScrimRepository repo, UsuarioService usuarios, ConductaService conductaService,
+                             NotificationService notificaciones, Clock clock) {
         this.repo = Objects.requireNonNull(repo);
         this.usuarios = Objects.requireNonNull(usuarios);
         this.conductaService = Objects.requireNonNull(conductaService);
         this.notificaciones = notificaciones;
+        this.clock = Objects.requireNonNull(clock);
     }
 
-    public void unirse(String idScrim, String emailJugador) {
-        var usuario = usuarios.buscar(emailJugador);
-        Scrim scrim = obtenerScrim(idScrim);
-        validarPuedeUnirse(usuario, scrim);
-        if (!scrim.hayCupoDisponible()) {
-            registrarSuplente(scrim, emailJugador);
-            return;
+    /**
+     * Agenda a la que se avisa cuando un scrim queda confirmado (o deja de estarlo).
+     */
+    public void setAgenda(AgendaScrims agenda) {
+        this.agenda = agenda;
+    }
+
+    /** Resultado de un intento de alta, decidido con el scrim bloqueado. */
+    private enum Alta {
+        JUGADOR(true), SUPLENTE_NUEVO(true), SUPLENTE_EXISTENTE(false), EQUIPO_COMPLETO(false);
+
+        // Si el scrim cambió y hay que guardarlo
+        private final boolean modifica;
+
+        Alta(boolean modifica) {
+            this.modifica = modifica;
         }
+    }
 
-        scrim.quitarDeListaEspera(emailJugador);
-        scrim.agregarJugador(emailJugador);
-        repo.guardar(scrim);
-        System.out.println("[evento] JugadorUnido scrim=" + idScrim + " jugador=" + emailJugador);
-        notificarUnion(scrim, emailJugador);
+    public void unirse(String idScrim, String emailJugador) {
+        var usuario = usuarios.buscar(emailJugador);
+        Alta alta = repo.conScrim(idScrim, scrim -> {
+            validarPuedeUnirse(usuario, scrim);
+            if (!scrim.hayCupoDisponible()) {
+                return anotarSuplente(scrim, emailJugador);
+            }
+            scrim.quitarDeListaEspera(emailJugador);
+            scrim.agregarJugador(emailJugador);
+            return Alta.JUGADOR;
+        }, a -> a.modifica);
+        informarAlta(idScrim, emailJugador, alta, "");
     }
 
     public void unirseAEquipo(String idScrim, String emailJugador, String nombreEquipo) {
         var usuario = usuarios.buscar(emailJugador);
-        Scrim scrim = obtenerScrim(idScrim);
-        validarPuedeUnirse(usuario, scrim);
-        if (!scrim.hayLugarEnEquipo(nombreEquipo)) {
-            if (scrim.hayCupoDisponible()) {
-                System.out.println("El equipo seleccionado ya está completo. Probá con el otro equipo.");
-                return;
+        Alta alta = repo.conScrim(idScrim, scrim -> {
+            validarPuedeUnirse(usuario, scrim);
+            if (!scrim.hayLugarEnEquipo(nombreEquipo)) {
+                if (scrim.hayCupoDisponible()) {
+                    return Alta.EQUIPO_COMPLETO;
+                }
+                return anotarSuplente(scrim, emailJugador);
             }
-            registrarSuplente(scrim, emailJugador);
-            return;
-        }
-
-        scrim.quitarDeListaEspera(emailJugador);
-        scrim.agregarJugador(emailJugador, nombreEquipo);
-        repo.guardar(scrim);
-        System.out.println("[evento] JugadorUnido scrim=" + idScrim + " jugador=" + emailJugador + " equipo=" + nombreEquipo);
-        notificarUnion(scrim, emailJugador);
+            scrim.quitarDeListaEspera(emailJugador);
+            scrim.agregarJugador(emailJugador, nombreEquipo);
+            return Alta.JUGADOR;
+        }, a -> a.modifica);
+        informarAlta(idScrim, emailJugador, alta, " equipo=" + nombreEquipo);
     }
 
     public void salir(String idScrim, String emailJugador) {
-        Scrim scrim = obtenerScrim(idScrim);
+        boolean abandono = repo.conScrim(idScrim, scrim -> {
+            if (!jugadorPerteneceAScrim(scrim, emailJugador)) {
+                throw new IllegalArgumentException("El jugador no participa de la scrim");
+            }
 
-        if (!jugadorPerteneceAScrim(scrim, emailJugador)) {
-            throw new IllegalArgumentException("El jugador no participa de la scrim");
-        }
+            var estado = scrim.getEstado();
+            boolean esBuscando = estado == BuscandoJugadoresState.INSTANCIA;
+            boolean esLobby = estado == LobbyArmadoState.INSTANCIA;
+            boolean esConfirmado = estado == ConfirmadoState.INSTANCIA;
 
-        var estado = scrim.getEstado();
-        boolean esBuscando = estado == BuscandoJugadoresState.INSTANCIA;
-        boolean esLobby = estado == LobbyArmadoState.INSTANCIA;
-        boolean esConfirmado = estado == ConfirmadoState.INSTANCIA;
+            if (!esBuscando && !esLobby && !esConfirmado) {
+                throw new IllegalStateException("No se puede salir del scrim en estado " + estado.getNombre());
+            }
 
-        if (!esBuscando && !esLobby && !esConfirmado) {
-            throw new IllegalStateException("No se puede salir del scrim en estado " + estado.getNombre());
-        }
+            scrim.quitarJugador(emailJugador);
+            return esLobby || esConfirmado;
+        });
 
-        if (esLobby || esConfirmado) {
+        // Fuera de conScrim: la operación se reintenta si hay conflicto de versión
+        if (abandono) {
             conductaService.registrarAbandono(emailJugador);
             System.out.println("[sancion] MotivoAbandono scrim=" + idScrim + " jugador=" + emailJugador);
         }
-
-        scrim.quitarJugador(emailJugador);
-        repo.guardar(scrim);
         System.out.println("[evento] JugadorQuitado scrim=" + idScrim + " jugador=" + emailJugador);
+        avisarAgenda(idScrim);
+        Scrim scrim = obtenerScrim(idScrim);
         notificarCupoLiberado(scrim);
     }
 
     public void confirmarJugador(String idScrim, String emailJugador) {
         usuarios.buscar(emailJugador);
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.confirmarJugador(emailJugador);
-        boolean todosConfirmados = scrim.ambosEquiposConfirmados();
-        repo.guardar(scrim);
+        boolean todosConfirmados = repo.conScrim(idScrim, scrim -> {
+            scrim.confirmarJugador(emailJugador);
+            return scrim.ambosEquiposConfirmados();
+        });
         System.out.println("[evento] EquipoConfirmado scrim=" + idScrim + " jugador=" + emailJugador);
+        avisarAgenda(idScrim);
+        Scrim scrim = obtenerScrim(idScrim);
         notificarSiQuedaConfirmado(scrim, todosConfirmados);
     }
 
     public void confirmarEquipo(String idScrim, String nombreEquipo) {
-        Scrim scrim = obtenerScrim(idScrim);
-        scrim.confirmarEquipo(nombreEquipo);
-        boolean todosConfirmados = scrim.ambosEquiposConfirmados();
-        repo.guardar(scrim);
+        boolean todosConfirmados = repo.conScrim(idScrim, scrim -> {
+            scrim.confirmarEquipo(nombreEquipo);
+            return scrim.ambosEquiposConfirmados();
+        });
         System.out.println("[evento] EquipoConfirmado scrim=" + idScrim + " equipo=" + nombreEquipo);
+        avisarAgenda(idScrim);
+        Scrim scrim = obtenerScrim(idScrim);
         notificarSiQuedaConfirmado(scrim, todosConfirmados);
     }
 
+    private void avisarAgenda(String idScrim) {
+        AgendaScrims actual = agenda;
+        if (actual != null) {
+            actual.reprogramar(idScrim);
+        }
+    }
+
     private void validarPuedeUnirse(Usuario usuario, Scrim scrim) {
-        if (usuario.tieneSancionesActivas()) {
-            String motivos = usuario.getSancionesActivas()
+        long ahoraMs = clock.millis();
+        if (usuario.tieneSancionesActivas(ahoraMs)) {
+            String motivos = usuario.getSancionesActivas(ahoraMs)
                     .stream()
                     .map(SancionActiva::toString)
                     .reduce((a, b) -> a + " @ " + b)
@@ -151,25 +190,34 @@ public class ScrimLobbyService {
     }
 
     private String nombreRango(int puntos) {
-        return StateRangos.disponibles().stream()
-                .filter(r -> puntos >= r.getMinimo() && puntos <= r.getMaximo())
-                .map(StateRangos::getNombre)
-                .findFirst()
-                .orElse(puntos + " MMR");
-    }
-
-    private void registrarSuplente(Scrim scrim, String emailJugador) {
-        boolean agregado = scrim.agregarAListaEspera(emailJugador);
-        repo.guardar(scrim);
-        if (agregado) {
-            System.out.println("[evento] SuplenteAgregado scrim=" + scrim.getId() + " jugador=" + emailJugador);
-            if (notificaciones != null) {
-                notificaciones.notificarIngresoListaEspera(scrim, emailJugador);
+        StateRangos rango = StateRangos.paraPuntos(puntos);
+        return rango != null ? rango.getNombre() : puntos + " MMR";
+    }
+
+    private Alta anotarSuplente(Scrim scrim, String emailJugador) {
+        return scrim.agregarAListaEspera(emailJugador, LocalDateTime.now(clock)) ? Alta.SUPLENTE_NUEVO : Alta.SUPLENTE_EXISTENTE;
+    }
+
+    private void informarAlta(String idScrim, String emailJugador, Alta alta, String detalle) {
+        Scrim scrim = obtenerScrim(idScrim);
+        switch (alta) {
+            case JUGADOR -> {
+                System.out.println("[evento] JugadorUnido scrim=" + idScrim + " jugador=" + emailJugador + detalle);
+                notificarUnion(scrim, emailJugador);
+            }
+            case EQUIPO_COMPLETO -> System.out.println("El equipo seleccionado ya está completo. Probá con el otro equipo.");
+            case SUPLENTE_NUEVO -> {
+                System.out.println("[evento] SuplenteAgregado scrim=" + idScrim + " jugador=" + emailJugador);
+                if (notificaciones != null) {
+                    notificaciones.notificarIngresoListaEspera(scrim, emailJugador);
+                }
+                System.out.println("El cupo está completo. Quedaste en la lista de suplentes. Te avisaremos si se libera un lugar.");
+            }
+            case SUPLENTE_EXISTENTE -> {
+                System.out.println("[evento] SuplenteExistente scrim=" + idScrim + " jugador=" + emailJugador);
+                System.out.println("El cupo está completo. Quedaste en la lista de suplentes. Te avisaremos si se libera un lugar.");
             }
-        } else {
-            System.out.println("[evento] SuplenteExistente scrim=" + scrim.getId() + " jugador=" + emailJugador);
         }
-        System.out.println("El cupo está completo. Quedaste en la lista de suplentes. Te avisaremos si se libera un lugar.");
     }
 
     private void notificarUnion(Scrim scrim, String emailJugador) {
@@ -1,169 +1,193 @@
 package ar.edu.tpo.service.scrim;
 
-import ar.edu.tpo.domain.EstadoScrim;
+import ar.edu.tpo.domain.Reloj;
 import ar.edu.tpo.domain.Scrim;
+import ar.edu.tpo.domain.estado.ConfirmadoState;
+import ar.edu.tpo.domain.estado.EnJuegoState;
 import ar.edu.tpo.repository.ScrimRepository;
 import ar.edu.tpo.service.ArgentinaTimeZone;
+import ar.edu.tpo.service.PlanificadorTareas;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Servicio que ejecuta transiciones automáticas de estados de scrims
- * basadas en fecha/hora programada.
+ * basadas en fecha/hora programada:
+ * - CONFIRMADO → EN_JUEGO cuando llega la fecha/hora de inicio
+ * - EN_JUEGO   → FINALIZADO cuando llega la fecha/hora de fin
+ *
+ * Cada scrim confirmado o en juego tiene a lo sumo una transición vigente,
+ * agendada en el {@link PlanificadorTareas} con el id del scrim como clave:
+ * las transiciones de scrims distintos corren en paralelo y las de un mismo
+ * scrim, en orden. Los servicios avisan por {@link AgendaScrims} cuando cambia
+ * el horario o el estado de un scrim, y la transición se recalcula leyendo el
+ * scrim vigente, de a un aviso por scrim a la vez: un aviso que llega tarde no
+ * puede dejar agendada una transición vieja. Si igual una transición ya no
+ * corresponde al vencer, se reagenda la del scrim vigente en lugar de perderla,
+ * y si falla al aplicarse se reintenta después de {@link #REINTENTO}.
  */
-public class ScrimSchedulerService {
-    private static volatile ScrimSchedulerService instancia;
+public class ScrimSchedulerService implements AgendaScrims {
+    // Espera antes de reintentar una transición que falló (el período del sondeo anterior)
+    private static final Duration REINTENTO = Duration.ofSeconds(30);
 
     private final ScrimRepository repo;
     private final ScrimCicloDeVidaService lifecycleService;
-    private ScheduledExecutorService scheduler;
-    private boolean activo = false;
+    private final PlanificadorTareas planificador;
+    // Última transición agendada por scrim; las demás en el planificador están vencidas
+    private final Map<String, Transicion> vigentes = new ConcurrentHashMap<>();
+    private volatile boolean activo = false;
 
-    private ScrimSchedulerService(ScrimRepository repo, ScrimCicloDeVidaService lifecycleService) {
-        this.repo = repo;
-        this.lifecycleService = lifecycleService;
+    private enum Tipo { INICIO, FIN }
+
+    private record Transicion(String idScrim, Tipo tipo, long vencimientoMs) {
     }
 
-    /**
-     * Obtiene la instancia única del scheduler. Si aún no existe, la crea.
-     * @param repo repositorio de scrims
-     * @param lifecycleService servicio de ciclo de vida de scrims
-     * @return instancia única del servicio de scheduler
-     */
-    public static ScrimSchedulerService getInstance(ScrimRepository repo, ScrimCicloDeVidaService lifecycleService) {
-        if (instancia == null) {
-            synchronized (ScrimSchedulerService.class) {
-                if (instancia == null) {
-                    instancia = new ScrimSchedulerService(repo, lifecycleService);
-                }
-            }
-        }
-        return instancia;
+    public ScrimSchedulerService(ScrimRepository repo,
+                                 ScrimCicloDeVidaService lifecycleService,
+                                 PlanificadorTareas planificador) {
+        this.repo = Objects.requireNonNull(repo);
+        this.lifecycleService = Objects.requireNonNull(lifecycleService);
+        this.planificador = Objects.requireNonNull(planificador);
     }
 
     /**
-     * Inicia el scheduler que revisa periódicamente las transiciones automáticas.
-     * @param intervaloSegundos Intervalo en segundos entre cada revisión
+     * Aplica en un solo lote las transiciones que vencieron con el sistema
+     * detenido y agenda las de los scrims confirmados o en juego que quedan.
      */
-    public void iniciar(int intervaloSegundos) {
+    public synchronized void iniciar() {
         if (activo) {
             System.out.println("[scheduler] Ya está activo");
             return;
         }
-
-        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "ScrimScheduler");
-            t.setDaemon(true);
-            return t;
-        });
-
-        scheduler.scheduleAtFixedRate(
-            this::procesarTransiciones,
-            0,
-            intervaloSegundos,
-            TimeUnit.SECONDS
-        );
-
         activo = true;
-        System.out.println("[scheduler] Iniciado - revisando cada " + intervaloSegundos + " segundos");
+        try {
+            ScrimCicloDeVidaService.PuestaAlDia puesta = lifecycleService.ponerAlDia(planificador.getClock().millis());
+            System.out.println("[scheduler] Puesta al día: " + puesta.iniciados() + " iniciados, " +
+                    puesta.finalizados() + " finalizados en " + puesta.duracionMs() + " ms");
+        } catch (RuntimeException e) {
+            // Las transiciones pendientes se agendan igual y se aplican de a una
+            System.err.println("[scheduler] Error en la puesta al día: " + e.getMessage());
+        }
+        List<Scrim> candidatos = new ArrayList<>(repo.buscarPorEstado(ConfirmadoState.INSTANCIA));
+        candidatos.addAll(repo.buscarPorEstado(EnJuegoState.INSTANCIA));
+        candidatos.forEach(s -> reprogramar(s.getId()));
+        System.out.println("[scheduler] Iniciado - " + vigentes.size() + " transiciones agendadas");
     }
 
     /**
-     * Detiene el scheduler.
+     * Detiene el scheduler. Las transiciones que ya estaban en el planificador
+     * se descartan al vencer.
      */
-    public void detener() {
-        if (!activo || scheduler == null) {
+    public synchronized void detener() {
+        if (!activo) {
             return;
         }
-
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-
         activo = false;
-        scheduler = null;
+        vigentes.clear();
         System.out.println("[scheduler] Detenido");
     }
 
     /**
-     * Procesa las transiciones automáticas:
-     * - CONFIRMADO → EN_JUEGO (cuando llega la fecha/hora de inicio)
-     * - EN_JUEGO   → FINALIZADO (cuando llega la fecha/hora de fin)
+     * Calcula la próxima transición del scrim vigente en el repositorio y
+     * reemplaza la que tuviera. La lectura y el reemplazo se hacen dentro de
+     * {@code compute}, así que dos avisos del mismo scrim no se intercalan y
+     * gana el último en leer. Mientras el scheduler está detenido no se agenda
+     * nada: al iniciar se recorren los scrims pendientes.
      */
-    private void procesarTransiciones() {
-        // Usar hora actual de Argentina
-        ZonedDateTime ahoraArgentina = ArgentinaTimeZone.ahora();
-        ZonedDateTime ahoraTruncado = ahoraArgentina.truncatedTo(java.time.temporal.ChronoUnit.MINUTES);
+    @Override
+    public void reprogramar(String idScrim) {
+        if (!activo) {
+            return;
+        }
+        vigentes.compute(idScrim, (id, anterior) -> {
+            Transicion nueva = proximaTransicion(vigente(id));
+            if (nueva != null && !nueva.equals(anterior)) {
+                String descripcion = "transición " + nueva.tipo() + " del scrim " + id;
+                planificador.programar(id, descripcion, nueva.vencimientoMs(), () -> ejecutar(nueva));
+            }
+            return nueva;
+        });
+    }
+
+    public boolean estaActivo() {
+        return activo;
+    }
 
+    // Null si el scrim ya no existe
+    private Scrim vigente(String id) {
         try {
-            for (Scrim scrim : repo.listar()) {
-                EstadoScrim estado = scrim.getEstado();
-                LocalDateTime inicio = scrim.getInicio();
-
-                // CONFIRMADO → EN_JUEGO: cuando la fecha de inicio ya pasó completamente (comparando en zona Argentina)
-                if (estado instanceof ar.edu.tpo.domain.estado.ConfirmadoState && inicio != null) {
-                    ZonedDateTime inicioArgentina = ArgentinaTimeZone.aZonaArgentina(inicio);
-                    if (inicioArgentina != null) {
-                        ZonedDateTime inicioTruncado = inicioArgentina.truncatedTo(java.time.temporal.ChronoUnit.MINUTES);
-                        
-                        if (ahoraTruncado.isAfter(inicioTruncado) || ahoraTruncado.isEqual(inicioTruncado)) {
-                            try {
-                                lifecycleService.iniciarScrim(scrim.getId());
-                                System.out.println("[scheduler] Scrim iniciado automáticamente: " + scrim.getId() + 
-                                    " (inicio programado: " + inicioTruncado + ", hora actual: " + ahoraTruncado + ")");
-                            } catch (Exception e) {
-                                System.err.println("[scheduler] Error al iniciar scrim " + scrim.getId() + ": " + e.getMessage());
-                            }
-                        } else {
-                            // Debug: mostrar cuando aún no es hora
-                            long minutosRestantes = java.time.temporal.ChronoUnit.MINUTES.between(ahoraTruncado, inicioTruncado);
-                            if (minutosRestantes <= 5 && minutosRestantes > 0) {
-                                System.out.println("[scheduler] Scrim " + scrim.getId() + " iniciará en " + minutosRestantes + " minutos");
-                            }
-                        }
-                    }
-                }
-
-                // EN_JUEGO → FINALIZADO: cuando la hora de fin ya pasó
-                LocalDateTime fin = scrim.getFin();
-                if (estado instanceof ar.edu.tpo.domain.estado.EnJuegoState && fin != null) {
-                    ZonedDateTime finArgentina = ArgentinaTimeZone.aZonaArgentina(fin);
-                    if (finArgentina != null) {
-                        ZonedDateTime finTruncado = finArgentina.truncatedTo(java.time.temporal.ChronoUnit.MINUTES);
-                        if (ahoraTruncado.isAfter(finTruncado) || ahoraTruncado.isEqual(finTruncado)) {
-                            try {
-                                lifecycleService.finalizarScrim(scrim.getId());
-                                System.out.println("[scheduler] Scrim finalizado automáticamente: " + scrim.getId() +
-                                        " (fin programado: " + finTruncado + ", hora actual: " + ahoraTruncado + ")");
-                            } catch (Exception e) {
-                                System.err.println("[scheduler] Error al finalizar scrim " + scrim.getId() + ": " + e.getMessage());
-                            }
-                        } else {
-                            long minutosRestantes = java.time.temporal.ChronoUnit.MINUTES.between(ahoraTruncado, finTruncado);
-                            if (minutosRestantes <= 5 && minutosRestantes > 0) {
-                                System.out.println("[scheduler] Scrim " + scrim.getId() + " finalizará en " + minutosRestantes + " minutos");
-                            }
-                        }
-                    }
-                }
+            return repo.buscarPorId(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Transicion proximaTransicion(Scrim scrim) {
+        if (scrim == null) {
+            return null;
+        }
+        if (scrim.getEstado() instanceof ConfirmadoState && scrim.getInicioMs() != Reloj.SIN_FECHA) {
+            return new Transicion(scrim.getId(), Tipo.INICIO, scrim.getInicioMs());
+        }
+        if (scrim.getEstado() instanceof EnJuegoState && scrim.getFinMs() != Reloj.SIN_FECHA) {
+            return new Transicion(scrim.getId(), Tipo.FIN, scrim.getFinMs());
+        }
+        return null;
+    }
+
+    private static ZonedDateTime enArgentina(long instanteMs) {
+        return Instant.ofEpochMilli(instanteMs).atZone(ArgentinaTimeZone.getZoneId());
+    }
+
+    private void ejecutar(Transicion transicion) {
+        if (activo && vigentes.remove(transicion.idScrim(), transicion)) {
+            aplicar(transicion);
+        }
+    }
+
+    private void aplicar(Transicion transicion) {
+        String id = transicion.idScrim();
+        try {
+            // El scrim pudo cambiar desde que se agendó: solo se aplica si sigue
+            // tocando lo mismo; si no, se agenda la que corresponde ahora
+            if (!transicion.equals(proximaTransicion(vigente(id)))) {
+                reprogramar(id);
+                return;
+            }
+            if (transicion.tipo() == Tipo.INICIO) {
+                lifecycleService.iniciarScrim(id);
+                System.out.println("[scheduler] Scrim iniciado automáticamente: " + id +
+                        " (inicio programado: " + enArgentina(transicion.vencimientoMs()) + ")");
+            } else {
+                lifecycleService.finalizarScrim(id);
+                System.out.println("[scheduler] Scrim finalizado automáticamente: " + id +
+                        " (fin programado: " + enArgentina(transicion.vencimientoMs()) + ")");
             }
         } catch (Exception e) {
-            System.err.println("[scheduler] Error en procesamiento de transiciones: " + e.getMessage());
+            String accion = transicion.tipo() == Tipo.INICIO ? "iniciar" : "finalizar";
+            System.err.println("[scheduler] Error al " + accion + " scrim " + id + ": " + e.getMessage());
+            reintentar(transicion);
         }
     }
 
-    public boolean estaActivo() {
-        return activo;
+    // Vuelve a agendar la misma transición más tarde, salvo que un aviso ya
+    // haya agendado otra; al vencer se compara de nuevo con el scrim vigente
+    private void reintentar(Transicion transicion) {
+        if (!activo) {
+            return;
+        }
+        long reintentoMs = planificador.getClock().millis() + REINTENTO.toMillis();
+        vigentes.computeIfAbsent(transicion.idScrim(), id -> {
+            String descripcion = "reintento de la transición " + transicion.tipo() + " del scrim " + id;
+            planificador.programar(id, descripcion, reintentoMs, () -> ejecutar(transicion));
+            return transicion;
+        });
     }
 }
-
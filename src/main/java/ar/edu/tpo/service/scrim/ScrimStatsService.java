@@ -7,6 +7,7 @@ import ar.edu.tpo.domain.estado.FinalizadoState;
 import ar.edu.tpo.repository.ScrimRepository;
 import ar.edu.tpo.service.UsuarioService;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -17,29 +18,32 @@ public class ScrimStatsService {
 
     private final ScrimRepository repo;
     private final UsuarioService usuarios;
+    private final Clock clock;
 
     public ScrimStatsService(ScrimRepository repo, UsuarioService usuarios) {
+        this(repo, usuarios, Clock.systemDefaultZone());
+    }
+
+    public ScrimStatsService(ScrimRepository repo, UsuarioService usuarios, Clock clock) {
         this.repo = Objects.requireNonNull(repo);
         this.usuarios = Objects.requireNonNull(usuarios);
+        this.clock = Objects.requireNonNull(clock);
     }
 
     public void cargarResultado(String idScrim, String emailJugador,
                                 int kills, int assists, int deaths, double rating) {
         usuarios.buscar(emailJugador);
-        Scrim scrim = obtenerScrim(idScrim);
-        verificarFinalizado(scrim);
         KDA kda = new KDA(kills, assists, deaths);
-        Estadistica estadistica = new Estadistica(emailJugador, kda, rating, LocalDateTime.now());
-        scrim.registrarEstadistica(estadistica);
-        repo.guardar(scrim);
+        Estadistica estadistica = new Estadistica(emailJugador, kda, rating, LocalDateTime.now(clock));
+        repo.conScrim(idScrim, scrim -> {
+            verificarFinalizado(scrim);
+            scrim.registrarEstadistica(estadistica);
+            return null;
+        });
         System.out.println("[evento] ResultadoReportado scrim=" + idScrim +
                 " jugador=" + emailJugador + " kda=" + kda.valor());
     }
 
-    private Scrim obtenerScrim(String idScrim) {
-        return repo.buscarPorId(idScrim);
-    }
-
     private void verificarFinalizado(Scrim scrim) {
         if (scrim.getEstado() != FinalizadoState.INSTANCIA) {
             throw new IllegalStateException("Solo se pueden cargar resultados cuando el scrim está en estado FINALIZADO.");